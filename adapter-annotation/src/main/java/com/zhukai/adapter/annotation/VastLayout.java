@@ -0,0 +1,27 @@
+package com.zhukai.adapter.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明Holder对应的布局
+ * <p>
+ * 标注在继承VastHolder的类上，编译期生成名为"类名_VastHolder"的子类，
+ * 在构造时一次性查找{@link VastView}标注的View并赋值给对应字段.
+ * 布局仍通过适配器的布局id声明，生成类的FACTORY常量通过VastAdapter#setHolderFactory与布局下标关联.
+ *
+ * @author zhukai
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface VastLayout {
+
+    /**
+     * 布局资源id，仅用于说明Holder对应的布局，生成代码不使用
+     * <p>
+     * 库模块中R的字段不是常量，无法用于注解，省略即可.
+     */
+    int value() default 0;
+}
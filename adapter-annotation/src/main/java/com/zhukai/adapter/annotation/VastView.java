@@ -0,0 +1,30 @@
+package com.zhukai.adapter.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 声明字段对应的View id
+ * <p>
+ * 字段不可为private或static，类型需为View或其子类.
+ * 应用模块中使用{@link #value()}声明资源id;库模块中R的字段不是常量，无法用于注解，需使用{@link #name()}声明资源名，
+ * 生成的子类在构造时按名称查找一次资源id.
+ *
+ * @author zhukai
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface VastView {
+
+    /**
+     * View资源id，与{@link #name()}二选一
+     */
+    int value() default 0;
+
+    /**
+     * View资源名，即R.id之后的部分，与{@link #value()}二选一
+     */
+    String name() default "";
+}
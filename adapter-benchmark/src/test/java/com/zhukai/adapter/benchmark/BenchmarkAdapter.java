@@ -0,0 +1,38 @@
+package com.zhukai.adapter.benchmark;
+
+import com.zhukai.adapter.VastAdapter;
+import com.zhukai.adapter.VastHolder;
+
+import java.util.List;
+
+/**
+ * 基准测试适配器，每10条数据中有1条使用占满整行的宽布局
+ *
+ * @author zhukai
+ */
+class BenchmarkAdapter extends VastAdapter<BenchmarkItem> {
+
+    static final int WIDE_INTERVAL = 10;
+
+    BenchmarkAdapter(List<BenchmarkItem> data) {
+        super(data, R.layout.benchmark_item, R.layout.benchmark_item_wide);
+    }
+
+    @Override
+    public void bindHolder(VastHolder holder, BenchmarkItem data, int position) {
+        holder.setText(R.id.benchmark_title_tv, data.title);
+        if (holder.itemViewIndex == 0) {
+            holder.setText(R.id.benchmark_subtitle_tv, data.subtitle);
+        }
+    }
+
+    @Override
+    public int getItemViewIndex(int position) {
+        return isFullSpanData(getDataPosition(position)) ? 1 : 0;
+    }
+
+    @Override
+    public boolean isFullSpanData(int position) {
+        return position % WIDE_INTERVAL == 0;
+    }
+}
@@ -0,0 +1,18 @@
+package com.zhukai.adapter.benchmark;
+
+/**
+ * 基准测试数据
+ *
+ * @author zhukai
+ */
+final class BenchmarkItem {
+
+    final String title;
+
+    final String subtitle;
+
+    BenchmarkItem(String title, String subtitle) {
+        this.title = title;
+        this.subtitle = subtitle;
+    }
+}
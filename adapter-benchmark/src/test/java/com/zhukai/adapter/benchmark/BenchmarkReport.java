@@ -0,0 +1,166 @@
+package com.zhukai.adapter.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 基准测试计时与JSON报告
+ * <p>
+ * 每项测量先预热，再按批次执行直至达到最短测量时间，记录每次操作的耗时与分配字节数;
+ * 每新增一条结果即重写整个报告文件，报告位置由系统属性{@value #REPORT_PROPERTY}指定.
+ *
+ * @author zhukai
+ */
+final class BenchmarkReport {
+
+    static final String REPORT_PROPERTY = "vast.benchmark.report";
+
+    private static final int SCHEMA_VERSION = 1;
+
+    private static final long WARMUP_NANOS = 100_000_000L;
+
+    private static final long MEASURE_NANOS = 300_000_000L;
+
+    private static final int BATCH = 256;
+
+    private static final List<Result> RESULTS = new ArrayList<>();
+
+    private BenchmarkReport() {
+    }
+
+    /**
+     * 被测量的操作
+     */
+    interface Operation {
+
+        /**
+         * @param iteration 迭代序号，可用于选择下标
+         */
+        void run(int iteration);
+    }
+
+    /**
+     * 测量操作并写入报告
+     */
+    static Result measure(String benchmark, BenchmarkScenario scenario, Operation operation) {
+        runFor(operation, WARMUP_NANOS);
+
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long iterations = runFor(operation, MEASURE_NANOS);
+        long elapsed = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+
+        Result result = new Result(benchmark, scenario, iterations, elapsed,
+                allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore);
+        synchronized (RESULTS) {
+            RESULTS.add(result);
+            write();
+        }
+        return result;
+    }
+
+    private static long runFor(Operation operation, long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        int iteration = 0;
+        do {
+            for (int i = 0; i < BATCH; i++) {
+                operation.run(iteration++);
+            }
+        } while (System.nanoTime() < deadline);
+        return iteration;
+    }
+
+    /**
+     * 当前线程已分配的字节数，运行时不支持时返回-1
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static void write() {
+        String path = System.getProperty(REPORT_PROPERTY);
+        if (null == path || path.isEmpty()) {
+            return;
+        }
+        File file = new File(path);
+        File parent = file.getParentFile();
+        if (null != parent && !parent.exists() && !parent.mkdirs()) {
+            throw new IllegalStateException("cannot create " + parent);
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n");
+        sb.append("  \"schema\": ").append(SCHEMA_VERSION).append(",\n");
+        sb.append("  \"jvm\": \"").append(escape(System.getProperty("java.vm.name"))).append(' ')
+                .append(escape(System.getProperty("java.version"))).append("\",\n");
+        sb.append("  \"results\": [");
+        for (int i = 0; i < RESULTS.size(); i++) {
+            sb.append(i == 0 ? "\n" : ",\n").append("    ").append(RESULTS.get(i).toJson());
+        }
+        sb.append("\n  ]\n}\n");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8")) {
+            writer.write(sb.toString());
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot write benchmark report to " + file, e);
+        }
+    }
+
+    private static String escape(String s) {
+        return null == s ? "" : s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    /**
+     * 单项测量结果
+     */
+    static final class Result {
+
+        final String benchmark;
+
+        final BenchmarkScenario scenario;
+
+        final long iterations;
+
+        final double nanosPerOp;
+
+        /**
+         * 每次操作分配的字节数，不支持统计时为-1
+         */
+        final double bytesPerOp;
+
+        Result(String benchmark, BenchmarkScenario scenario, long iterations, long elapsedNanos, long allocatedBytes) {
+            this.benchmark = benchmark;
+            this.scenario = scenario;
+            this.iterations = iterations;
+            this.nanosPerOp = (double) elapsedNanos / iterations;
+            this.bytesPerOp = allocatedBytes < 0 ? -1 : (double) allocatedBytes / iterations;
+        }
+
+        String toJson() {
+            return String.format(Locale.US,
+                    "{\"benchmark\": \"%s\", \"layoutManager\": \"%s\", \"fixedViews\": %d, \"dataSize\": %d, "
+                            + "\"iterations\": %d, \"nsPerOp\": %.2f, \"opsPerSec\": %.0f, \"bytesPerOp\": %.2f}",
+                    escape(benchmark), scenario.layoutManager, scenario.fixedViewCount, scenario.dataSize,
+                    iterations, nanosPerOp, 1e9 / nanosPerOp, bytesPerOp);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US, "%s %s: %.1f ns/op, %.1f B/op", benchmark, scenario, nanosPerOp, bytesPerOp);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.zhukai.adapter.benchmark;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.recyclerview.widget.StaggeredGridLayoutManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试场景：布局管理器、Header/Footer数量与数据量的组合
+ *
+ * @author zhukai
+ */
+final class BenchmarkScenario {
+
+    static final String LINEAR = "linear";
+
+    static final String GRID = "grid";
+
+    static final String STAGGERED = "staggered";
+
+    private static final String[] LAYOUT_MANAGERS = {LINEAR, GRID, STAGGERED};
+
+    private static final int[] FIXED_VIEW_COUNTS = {0, 2, 10};
+
+    private static final int[] DATA_SIZES = {100, 10000};
+
+    private static final int SPAN_COUNT = 3;
+
+    private static final int WIDTH = 1080;
+
+    private static final int HEIGHT = 1920;
+
+    final String layoutManager;
+
+    /**
+     * Header与Footer各占一半
+     */
+    final int fixedViewCount;
+
+    final int dataSize;
+
+    RecyclerView recyclerView;
+
+    BenchmarkAdapter adapter;
+
+    private BenchmarkScenario(String layoutManager, int fixedViewCount, int dataSize) {
+        this.layoutManager = layoutManager;
+        this.fixedViewCount = fixedViewCount;
+        this.dataSize = dataSize;
+    }
+
+    /**
+     * 全部场景组合
+     */
+    static List<BenchmarkScenario> all() {
+        List<BenchmarkScenario> scenarios = new ArrayList<>();
+        for (String layoutManager : LAYOUT_MANAGERS) {
+            for (int fixedViewCount : FIXED_VIEW_COUNTS) {
+                for (int dataSize : DATA_SIZES) {
+                    scenarios.add(new BenchmarkScenario(layoutManager, fixedViewCount, dataSize));
+                }
+            }
+        }
+        return scenarios;
+    }
+
+    /**
+     * 创建RecyclerView与适配器并完成首次布局
+     */
+    BenchmarkScenario setUp(Context context) {
+        List<BenchmarkItem> data = new ArrayList<>(dataSize);
+        for (int i = 0; i < dataSize; i++) {
+            data.add(new BenchmarkItem("title " + i, "subtitle " + i));
+        }
+        adapter = new BenchmarkAdapter(data);
+        for (int i = 0; i < fixedViewCount; i++) {
+            TextView view = new TextView(context);
+            view.setText("fixed " + i);
+            if (i % 2 == 0) {
+                adapter.addHeaderView(view);
+            } else {
+                adapter.addFooterView(view);
+            }
+        }
+
+        recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(createLayoutManager(context));
+        recyclerView.setAdapter(adapter);
+        recyclerView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        recyclerView.layout(0, 0, WIDTH, HEIGHT);
+        return this;
+    }
+
+    private RecyclerView.LayoutManager createLayoutManager(Context context) {
+        if (GRID.equals(layoutManager)) {
+            return new GridLayoutManager(context, SPAN_COUNT);
+        }
+        if (STAGGERED.equals(layoutManager)) {
+            return new StaggeredGridLayoutManager(SPAN_COUNT, StaggeredGridLayoutManager.VERTICAL);
+        }
+        return new LinearLayoutManager(context);
+    }
+
+    int getHeaderCount() {
+        return (fixedViewCount + 1) / 2;
+    }
+
+    @Override
+    public String toString() {
+        return layoutManager + "/fixed=" + fixedViewCount + "/data=" + dataSize;
+    }
+}
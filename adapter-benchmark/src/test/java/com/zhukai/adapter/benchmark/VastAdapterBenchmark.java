@@ -0,0 +1,178 @@
+package com.zhukai.adapter.benchmark;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+
+import com.zhukai.adapter.VastHolder;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * VastAdapter热点路径基准测试
+ * <p>
+ * 运行 ./gradlew :adapter-benchmark:testDebugUnitTest，结果写入 build/reports/benchmark/vast-adapter.json.
+ *
+ * @author zhukai
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class VastAdapterBenchmark {
+
+    /**
+     * 防止被测结果被优化掉
+     */
+    private static volatile Object sBlackhole;
+
+    private static Context context() {
+        return ApplicationProvider.getApplicationContext();
+    }
+
+    @Test
+    public void getItemViewType() {
+        for (BenchmarkScenario scenario : BenchmarkScenario.all()) {
+            final BenchmarkAdapter adapter = scenario.setUp(context()).adapter;
+            final int itemCount = adapter.getItemCount();
+            BenchmarkReport.measure("getItemViewType", scenario, new BenchmarkReport.Operation() {
+                @Override
+                public void run(int iteration) {
+                    sBlackhole = adapter.getItemViewType(iteration % itemCount);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void onCreateViewHolder() {
+        for (BenchmarkScenario scenario : BenchmarkScenario.all()) {
+            final BenchmarkAdapter adapter = scenario.setUp(context()).adapter;
+            final RecyclerView parent = scenario.recyclerView;
+            BenchmarkReport.measure("onCreateViewHolder", scenario, new BenchmarkReport.Operation() {
+                @Override
+                public void run(int iteration) {
+                    sBlackhole = adapter.onCreateViewHolder(parent, iteration & 1);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void onBindViewHolder() {
+        for (BenchmarkScenario scenario : BenchmarkScenario.all()) {
+            final BenchmarkAdapter adapter = scenario.setUp(context()).adapter;
+            final RecyclerView.ViewHolder[] holders = {
+                    adapter.onCreateViewHolder(scenario.recyclerView, 0),
+                    adapter.onCreateViewHolder(scenario.recyclerView, 1)
+            };
+            final int headerCount = scenario.getHeaderCount();
+            final int dataSize = scenario.dataSize;
+            BenchmarkReport.measure("onBindViewHolder", scenario, new BenchmarkReport.Operation() {
+                @Override
+                public void run(int iteration) {
+                    int position = headerCount + iteration % dataSize;
+                    adapter.onBindViewHolder(holders[adapter.getItemViewType(position)], position);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void getViewById() {
+        for (BenchmarkScenario scenario : BenchmarkScenario.all()) {
+            final VastHolder holder = (VastHolder) scenario.setUp(context()).adapter
+                    .onCreateViewHolder(scenario.recyclerView, 0);
+            final int[] ids = {R.id.benchmark_title_tv, R.id.benchmark_subtitle_tv, R.id.benchmark_icon_iv};
+            BenchmarkReport.measure("VastHolder.getViewById", scenario, new BenchmarkReport.Operation() {
+                @Override
+                public void run(int iteration) {
+                    sBlackhole = holder.getViewById(ids[iteration % ids.length]);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void spanSize() {
+        for (BenchmarkScenario scenario : BenchmarkScenario.all()) {
+            if (!BenchmarkScenario.GRID.equals(scenario.layoutManager)) {
+                continue;
+            }
+            scenario.setUp(context());
+            final GridLayoutManager.SpanSizeLookup lookup =
+                    ((GridLayoutManager) scenario.recyclerView.getLayoutManager()).getSpanSizeLookup();
+            final int itemCount = scenario.adapter.getItemCount();
+            BenchmarkReport.measure("SpanSizeLookup.getSpanSize", scenario, new BenchmarkReport.Operation() {
+                @Override
+                public void run(int iteration) {
+                    sBlackhole = lookup.getSpanSize(iteration % itemCount);
+                }
+            });
+        }
+    }
+
+    /**
+     * 随机跳转时的span下标与分组下标计算，缓存生效时不随下标线性增长
+     */
+    @Test
+    public void spanIndexJump() {
+        for (BenchmarkScenario scenario : BenchmarkScenario.all()) {
+            if (!BenchmarkScenario.GRID.equals(scenario.layoutManager)) {
+                continue;
+            }
+            scenario.setUp(context());
+            GridLayoutManager glm = (GridLayoutManager) scenario.recyclerView.getLayoutManager();
+            final GridLayoutManager.SpanSizeLookup lookup = glm.getSpanSizeLookup();
+            final int spanCount = glm.getSpanCount();
+            final int itemCount = scenario.adapter.getItemCount();
+            BenchmarkReport.measure("SpanSizeLookup.getSpanGroupIndex", scenario, new BenchmarkReport.Operation() {
+                @Override
+                public void run(int iteration) {
+                    //以质数步长在整个列表中跳转
+                    int position = (int) ((iteration * 7919L) % itemCount);
+                    sBlackhole = lookup.getSpanIndex(position, spanCount) + lookup.getSpanGroupIndex(position, spanCount);
+                }
+            });
+        }
+    }
+
+    /**
+     * StaggeredGridLayoutManager下重新绑定已显示的条目，包含绑定时的占满整行处理
+     */
+    @Test
+    public void staggeredFullSpan() {
+        for (BenchmarkScenario scenario : BenchmarkScenario.all()) {
+            if (!BenchmarkScenario.STAGGERED.equals(scenario.layoutManager)) {
+                continue;
+            }
+            final BenchmarkAdapter adapter = scenario.setUp(context()).adapter;
+            RecyclerView recyclerView = scenario.recyclerView;
+            final List<RecyclerView.ViewHolder> attached = new ArrayList<>();
+            final List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < recyclerView.getChildCount(); i++) {
+                View child = recyclerView.getChildAt(i);
+                RecyclerView.ViewHolder holder = recyclerView.getChildViewHolder(child);
+                attached.add(holder);
+                positions.add(holder.getAdapterPosition());
+            }
+            assertTrue("no attached holders in " + scenario, !attached.isEmpty());
+            BenchmarkReport.measure("onBindViewHolder.fullSpan", scenario, new BenchmarkReport.Operation() {
+                @Override
+                public void run(int iteration) {
+                    int index = iteration % attached.size();
+                    adapter.onBindViewHolder(attached.get(index), positions.get(index));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.zhukai.adapter.compiler;
+
+import com.zhukai.adapter.annotation.VastLayout;
+import com.zhukai.adapter.annotation.VastView;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * 根据{@link VastLayout}与{@link VastView}生成Holder子类
+ * <p>
+ * 生成的子类在构造时一次性查找View并赋值给字段，绑定数据时直接访问字段，
+ * 避免每次通过id查找View及类型强转.
+ * 生成代码依赖泛型的View#findViewById，需以API 26及以上编译.
+ *
+ * @author zhukai
+ */
+public class VastHolderProcessor extends AbstractProcessor {
+
+    /**
+     * 生成类名后缀
+     */
+    private static final String SUFFIX = "_VastHolder";
+
+    private static final String VAST_HOLDER = "com.zhukai.adapter.VastHolder";
+
+    private static final String VIEW = "android.view.View";
+
+    private Filer mFiler;
+
+    private Messager mMessager;
+
+    private Elements mElements;
+
+    private Types mTypes;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        mFiler = processingEnv.getFiler();
+        mMessager = processingEnv.getMessager();
+        mElements = processingEnv.getElementUtils();
+        mTypes = processingEnv.getTypeUtils();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        Set<String> types = new LinkedHashSet<>();
+        types.add(VastLayout.class.getCanonicalName());
+        types.add(VastView.class.getCanonicalName());
+        return types;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(VastView.class)) {
+            if (null == element.getEnclosingElement().getAnnotation(VastLayout.class)) {
+                error(element, "@VastView fields must be declared in a class annotated with @VastLayout");
+            }
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(VastLayout.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@VastLayout can only be applied to classes");
+                continue;
+            }
+            TypeElement holderType = (TypeElement) element;
+            List<VariableElement> fields = collectFields(holderType);
+            if (null != fields && checkHolderType(holderType)) {
+                writeHolder(holderType, fields);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 检查被标注的类是否可以被继承
+     */
+    private boolean checkHolderType(TypeElement holderType) {
+        Set<Modifier> modifiers = holderType.getModifiers();
+        if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL)) {
+            error(holderType, "@VastLayout classes must not be private or final");
+            return false;
+        }
+        if (holderType.getNestingKind().isNested() && !modifiers.contains(Modifier.STATIC)) {
+            error(holderType, "nested @VastLayout classes must be static");
+            return false;
+        }
+        if (!holderType.getTypeParameters().isEmpty()) {
+            error(holderType, "@VastLayout classes must not declare type parameters");
+            return false;
+        }
+        TypeElement vastHolder = mElements.getTypeElement(VAST_HOLDER);
+        if (null == vastHolder || !mTypes.isSubtype(holderType.asType(), vastHolder.asType())) {
+            error(holderType, "@VastLayout classes must extend " + VAST_HOLDER);
+            return false;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(holderType.getEnclosedElements())) {
+            List<? extends VariableElement> parameters = constructor.getParameters();
+            if (!constructor.getModifiers().contains(Modifier.PRIVATE) && parameters.size() == 1
+                    && VIEW.equals(parameters.get(0).asType().toString())) {
+                return true;
+            }
+        }
+        error(holderType, "@VastLayout classes must declare a non-private constructor taking a single " + VIEW);
+        return false;
+    }
+
+    /**
+     * 收集类中被{@link VastView}标注的字段
+     *
+     * @return 存在不合法的字段时返回null
+     */
+    private List<VariableElement> collectFields(TypeElement holderType) {
+        TypeElement view = mElements.getTypeElement(VIEW);
+        List<VariableElement> fields = new ArrayList<>();
+        boolean valid = true;
+        for (VariableElement field : ElementFilter.fieldsIn(holderType.getEnclosedElements())) {
+            VastView vastView = field.getAnnotation(VastView.class);
+            if (null == vastView) {
+                continue;
+            }
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)
+                    || modifiers.contains(Modifier.FINAL)) {
+                error(field, "@VastView fields must not be private, static or final");
+                valid = false;
+            } else if (null != view && !mTypes.isSubtype(field.asType(), view.asType())) {
+                error(field, "@VastView fields must be of type " + VIEW + " or a subclass");
+                valid = false;
+            } else if ((vastView.value() == 0) == vastView.name().isEmpty()) {
+                error(field, "@VastView must declare exactly one of value and name");
+                valid = false;
+            } else {
+                fields.add(field);
+            }
+        }
+        return valid ? fields : null;
+    }
+
+    /**
+     * 输出生成的Holder子类
+     */
+    private void writeHolder(TypeElement holderType, List<VariableElement> fields) {
+        PackageElement packageElement = mElements.getPackageOf(holderType);
+        String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        String className = binaryName(holderType, packageName) + SUFFIX;
+        boolean byName = false;
+        for (VariableElement field : fields) {
+            byName |= !field.getAnnotation(VastView.class).name().isEmpty();
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("// Generated by VastHolderProcessor. Do not modify!\n");
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        if (byName) {
+            sb.append("import android.content.res.Resources;\n");
+        }
+        sb.append("import android.view.View;\n\n");
+        sb.append("import com.zhukai.adapter.VastHolder;\n");
+        sb.append("import com.zhukai.adapter.VastHolderFactory;\n\n");
+        sb.append("public final class ").append(className)
+                .append(" extends ").append(holderType.getQualifiedName()).append(" {\n\n");
+        sb.append("    public static final VastHolderFactory FACTORY = new VastHolderFactory() {\n");
+        sb.append("        @Override\n");
+        sb.append("        public VastHolder create(View itemView) {\n");
+        sb.append("            return new ").append(className).append("(itemView);\n");
+        sb.append("        }\n");
+        sb.append("    };\n\n");
+        sb.append("    public ").append(className).append("(View itemView) {\n");
+        sb.append("        super(itemView);\n");
+        if (byName) {
+            sb.append("        Resources resources = itemView.getResources();\n");
+            sb.append("        String packageName = itemView.getContext().getPackageName();\n");
+        }
+        for (VariableElement field : fields) {
+            VastView vastView = field.getAnnotation(VastView.class);
+            sb.append("        this.").append(field.getSimpleName()).append(" = itemView.findViewById(");
+            if (vastView.name().isEmpty()) {
+                sb.append(vastView.value());
+            } else {
+                sb.append("resources.getIdentifier(\"").append(vastView.name()).append("\", \"id\", packageName)");
+            }
+            sb.append(");\n");
+        }
+        sb.append("    }\n");
+        sb.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try {
+            JavaFileObject file = mFiler.createSourceFile(qualifiedName, holderType);
+            try (Writer writer = file.openWriter()) {
+                writer.write(sb.toString());
+            }
+        } catch (IOException e) {
+            error(holderType, "failed to write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 嵌套类以"_"连接外部类名
+     */
+    private static String binaryName(TypeElement type, String packageName) {
+        String qualifiedName = type.getQualifiedName().toString();
+        String simpleNames = packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+        return simpleNames.replace('.', '_');
+    }
+
+    private void error(Element element, String message) {
+        mMessager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
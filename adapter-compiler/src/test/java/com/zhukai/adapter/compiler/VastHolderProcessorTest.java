@@ -0,0 +1,234 @@
+package com.zhukai.adapter.compiler;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * VastHolderProcessor测试
+ * <p>
+ * 通过javax.tools以最小的android与VastHolder桩类编译示例Holder，检查生成的源码及错误提示.
+ *
+ * @author zhukai
+ */
+public class VastHolderProcessorTest {
+
+    /**
+     * 编译所需的桩类
+     */
+    private static final String[][] STUBS = {
+            {"android.content.Context",
+                    "package android.content;\n"
+                            + "public class Context {\n"
+                            + "    public String getPackageName() { return null; }\n"
+                            + "}\n"},
+            {"android.content.res.Resources",
+                    "package android.content.res;\n"
+                            + "public class Resources {\n"
+                            + "    public int getIdentifier(String name, String defType, String defPackage) { return 0; }\n"
+                            + "}\n"},
+            {"android.view.View",
+                    "package android.view;\n"
+                            + "public class View {\n"
+                            + "    public <T extends View> T findViewById(int id) { return null; }\n"
+                            + "    public android.content.Context getContext() { return null; }\n"
+                            + "    public android.content.res.Resources getResources() { return null; }\n"
+                            + "}\n"},
+            {"android.widget.TextView",
+                    "package android.widget;\n"
+                            + "public class TextView extends android.view.View {\n"
+                            + "}\n"},
+            {"com.zhukai.adapter.VastHolder",
+                    "package com.zhukai.adapter;\n"
+                            + "public class VastHolder {\n"
+                            + "    protected VastHolder(android.view.View itemView) { }\n"
+                            + "}\n"},
+            {"com.zhukai.adapter.VastHolderFactory",
+                    "package com.zhukai.adapter;\n"
+                            + "public interface VastHolderFactory {\n"
+                            + "    VastHolder create(android.view.View itemView);\n"
+                            + "}\n"},
+    };
+
+    private File mOutputDir;
+
+    private DiagnosticCollector<JavaFileObject> mDiagnostics;
+
+    @Before
+    public void setUp() throws IOException {
+        mOutputDir = Files.createTempDirectory("vast-processor").toFile();
+        mDiagnostics = new DiagnosticCollector<>();
+    }
+
+    @Test
+    public void generatesHolderWithResourceIds() throws IOException {
+        boolean success = compile("com.example.ItemHolder",
+                "package com.example;\n"
+                        + "import android.view.View;\n"
+                        + "import android.widget.TextView;\n"
+                        + "import com.zhukai.adapter.VastHolder;\n"
+                        + "import com.zhukai.adapter.annotation.VastLayout;\n"
+                        + "import com.zhukai.adapter.annotation.VastView;\n"
+                        + "@VastLayout(7)\n"
+                        + "public abstract class ItemHolder extends VastHolder {\n"
+                        + "    @VastView(1) TextView title;\n"
+                        + "    @VastView(2) View icon;\n"
+                        + "    public ItemHolder(View itemView) { super(itemView); }\n"
+                        + "}\n");
+        assertTrue(errors(), success);
+
+        String source = generated("com/example/ItemHolder_VastHolder.java");
+        assertTrue(source, source.contains("public final class ItemHolder_VastHolder extends com.example.ItemHolder {"));
+        assertTrue(source, source.contains("public static final VastHolderFactory FACTORY = new VastHolderFactory() {"));
+        assertTrue(source, source.contains("return new ItemHolder_VastHolder(itemView);"));
+        assertTrue(source, source.contains("this.title = itemView.findViewById(1);"));
+        assertTrue(source, source.contains("this.icon = itemView.findViewById(2);"));
+        assertFalse(source, source.contains("LAYOUT"));
+        assertFalse(source, source.contains("Resources"));
+        assertFalse(source, source.contains("(android.view.View)"));
+    }
+
+    @Test
+    public void generatesHolderWithResourceNames() throws IOException {
+        boolean success = compile("com.example.Outer",
+                "package com.example;\n"
+                        + "import android.view.View;\n"
+                        + "import android.widget.TextView;\n"
+                        + "import com.zhukai.adapter.VastHolder;\n"
+                        + "import com.zhukai.adapter.annotation.VastLayout;\n"
+                        + "import com.zhukai.adapter.annotation.VastView;\n"
+                        + "public class Outer {\n"
+                        + "    @VastLayout\n"
+                        + "    public abstract static class Holder extends VastHolder {\n"
+                        + "        @VastView(name = \"title\") TextView title;\n"
+                        + "        public Holder(View itemView) { super(itemView); }\n"
+                        + "    }\n"
+                        + "}\n");
+        assertTrue(errors(), success);
+
+        String source = generated("com/example/Outer_Holder_VastHolder.java");
+        assertTrue(source, source.contains("extends com.example.Outer.Holder {"));
+        assertTrue(source, source.contains("Resources resources = itemView.getResources();"));
+        assertTrue(source, source.contains("this.title = itemView.findViewById(resources.getIdentifier(\"title\", \"id\", packageName));"));
+    }
+
+    @Test
+    public void rejectsInvalidFields() {
+        boolean success = compile("com.example.BadHolder",
+                "package com.example;\n"
+                        + "import android.view.View;\n"
+                        + "import com.zhukai.adapter.VastHolder;\n"
+                        + "import com.zhukai.adapter.annotation.VastLayout;\n"
+                        + "import com.zhukai.adapter.annotation.VastView;\n"
+                        + "@VastLayout\n"
+                        + "public abstract class BadHolder extends VastHolder {\n"
+                        + "    @VastView(1) private View hidden;\n"
+                        + "    @VastView View missing;\n"
+                        + "    @VastView(value = 2, name = \"both\") View both;\n"
+                        + "    public BadHolder(View itemView) { super(itemView); }\n"
+                        + "}\n");
+        assertFalse(success);
+        String errors = errors();
+        assertTrue(errors, errors.contains("@VastView fields must not be private, static or final"));
+        assertEquals(errors, 2, count(errors, "@VastView must declare exactly one of value and name"));
+        assertFalse(new File(mOutputDir, "com/example/BadHolder_VastHolder.java").exists());
+    }
+
+    @Test
+    public void rejectsHolderWithoutViewConstructor() {
+        boolean success = compile("com.example.NoConstructorHolder",
+                "package com.example;\n"
+                        + "import com.zhukai.adapter.VastHolder;\n"
+                        + "import com.zhukai.adapter.annotation.VastLayout;\n"
+                        + "@VastLayout\n"
+                        + "public abstract class NoConstructorHolder extends VastHolder {\n"
+                        + "    public NoConstructorHolder() { super(null); }\n"
+                        + "}\n");
+        assertFalse(success);
+        assertTrue(errors(), errors().contains("must declare a non-private constructor taking a single android.view.View"));
+    }
+
+    /**
+     * 连同桩类一起编译，生成的源码与class文件输出到临时目录
+     */
+    private boolean compile(String className, String source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("tests must run on a JDK", compiler);
+        List<JavaFileObject> sources = new ArrayList<>();
+        for (String[] stub : STUBS) {
+            sources.add(new SourceFile(stub[0], stub[1]));
+        }
+        sources.add(new SourceFile(className, source));
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(mDiagnostics, Locale.ROOT, Charset.forName("UTF-8"));
+        List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"),
+                "-d", mOutputDir.getPath(), "-s", mOutputDir.getPath());
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, mDiagnostics, options, null, sources);
+        task.setProcessors(Collections.singletonList(new VastHolderProcessor()));
+        return task.call();
+    }
+
+    private String generated(String path) throws IOException {
+        File file = new File(mOutputDir, path);
+        assertTrue(path + " was not generated", file.isFile());
+        return new String(Files.readAllBytes(file.toPath()), "UTF-8");
+    }
+
+    private String errors() {
+        StringBuilder sb = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : mDiagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                sb.append(diagnostic.getMessage(Locale.ROOT)).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    private static int count(String text, String part) {
+        int count = 0;
+        for (int index = text.indexOf(part); index >= 0; index = text.indexOf(part, index + part.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 内存中的源文件
+     */
+    private static final class SourceFile extends SimpleJavaFileObject {
+
+        private final String mSource;
+
+        SourceFile(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.mSource = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return mSource;
+        }
+    }
+}
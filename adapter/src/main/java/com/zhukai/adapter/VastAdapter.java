@@ -1,17 +1,30 @@
 package com.zhukai.adapter;
 
+import android.os.Parcelable;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import androidx.annotation.IdRes;
 import androidx.annotation.LayoutRes;
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.ListUpdateCallback;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.StaggeredGridLayoutManager;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * 通用适配器
@@ -26,17 +39,84 @@ public abstract class VastAdapter<D> extends RecyclerView.Adapter {
     private static final int PRELOAD_THRESHOLD_DEFAULT = 3;
 
     /**
-     * position转换标签
+     * 预加载状态：空闲，可触发预加载
+     */
+    public static final int PRELOAD_STATE_IDLE = 0;
+
+    /**
+     * 预加载状态：加载中，不会重复触发
+     */
+    public static final int PRELOAD_STATE_LOADING = 1;
+
+    /**
+     * 预加载状态：加载失败，需调用{@link #retryPreload()}重试
+     */
+    public static final int PRELOAD_STATE_ERROR = 2;
+
+    /**
+     * 预加载状态：没有更多数据
+     */
+    public static final int PRELOAD_STATE_EXHAUSTED = 3;
+
+    /**
+     * Header和Footer的viewType起始值
      * <p>
-     * 对Header和Footer的position进行标签转换，来充当viewType;以区别于正常的viewType.
+     * 空缺View使用该值，每个Header/Footer在适配器内从该值向下分配一个未被占用的viewType，移除后可再次分配;以区别于正常的viewType.
+     * 固定View的Holder不会进入回收池，共用回收池的适配器之间viewType相同也不会互相复用.
      */
     private static final int HEADER_FOOTER_VIEW_TYPE_FLAG = Integer.MAX_VALUE;
 
+    /**
+     * 以布局资源id作为viewType时，设置了Holder工厂的布局按工厂与布局id分配的viewType
+     * <p>
+     * 所有适配器共用，相同布局与工厂得到相同的viewType;不同工厂创建的Holder类型不同，经回收池时不会被其他工厂的适配器取用.
+     */
+    private static final HashMap<VastHolderFactory, SparseIntArray> sFactoryViewTypes = new HashMap<>();
+
+    /**
+     * 工厂布局的viewType到布局资源id
+     */
+    private static final SparseIntArray sFactoryViewTypeLayouts = new SparseIntArray();
+
+    /**
+     * 下一个待分配的工厂布局viewType，从最小值向上递增，不与布局资源id及Header/Footer的viewType冲突
+     */
+    private static int sNextFactoryViewType = Integer.MIN_VALUE;
+
+    /**
+     * 保留的itemId起始值
+     * <p>
+     * [RESERVED_ITEM_ID_START, RESERVED_ITEM_ID_END)区间留给空缺view、Header/Footer及占位数据使用，数据的key不可落在该区间.
+     */
+    private static final long RESERVED_ITEM_ID_START = Long.MIN_VALUE;
+
+    /**
+     * 占位数据的itemId起始值，加上数据下标即为占位数据的itemId
+     * <p>
+     * 之前的区间留给空缺view及Header/Footer.
+     */
+    private static final long PLACEHOLDER_ITEM_ID_START = Long.MIN_VALUE + (1L << 31);
+
+    /**
+     * 保留的itemId结束值(不含)
+     */
+    private static final long RESERVED_ITEM_ID_END = Long.MIN_VALUE + (1L << 32);
+
     /**
      * 数据
      */
     private List<D> mData;
 
+    /**
+     * 按下标访问的数据源，不为空时替代mData
+     */
+    private VastDataSource<D> mDataSource;
+
+    /**
+     * 数据源为分页缓存时的同一对象，用于无副作用读取及保留显示中的页
+     */
+    private VastCachedDataSource<D> mCachedSource;
+
     /**
      * 布局id
      */
@@ -45,18 +125,63 @@ public abstract class VastAdapter<D> extends RecyclerView.Adapter {
     /**
      * 头部布局
      */
-    private LinkedList<View> mHeaderViews = new LinkedList<>();
+    private ArrayList<FixedView> mHeaderViews = new ArrayList<>();
 
     /**
      * 尾部布局
      */
-    private LinkedList<View> mFooterViews = new LinkedList<>();
+    private ArrayList<FixedView> mFooterViews = new ArrayList<>();
+
+    /**
+     * 数据分组，每组可拥有独立的头部与尾部
+     */
+    private ArrayList<FixedSection> mSections = new ArrayList<>();
+
+    /**
+     * Header/Footer的viewType与View的对应关系
+     */
+    private SparseArray<FixedView> mFixedViews = new SparseArray<>();
+
+    /**
+     * 已分配的Header/Footer数量，作为itemId的序号，移除后不再复用
+     */
+    private long mFixedViewSerial;
+
+    /**
+     * adapter下标分段表
+     */
+    private final VastSegmentTable mSegments = new VastSegmentTable();
+
+    /**
+     * 分段表是否需要重建
+     */
+    private boolean mSegmentsDirty = true;
+
+    /**
+     * 构建分段表时的数据总量，数据总量变化后重建
+     */
+    private int mSegmentDataCount;
 
     /**
      * 空数据提示view
      */
     private View mVacancyHintView;
 
+    /**
+     * 空数据提示view的viewType
+     */
+    private final int mVacancyViewType = HEADER_FOOTER_VIEW_TYPE_FLAG;
+
+    /**
+     * 数据条目是否以布局资源id作为viewType
+     */
+    private boolean mLayoutIdViewType;
+
+    /**
+     * 共用回收池
+     */
+    private VastRecycledViewPool mSharedViewPool;
+
     /**
      * 长按监听
      */
@@ -67,6 +192,36 @@ public abstract class VastAdapter<D> extends RecyclerView.Adapter {
      */
     private OnItemClickListener mOnItemClickListener;
 
+    /**
+     * 携带数据的点击监听
+     */
+    private OnDataClickListener<D> mOnDataClickListener;
+
+    /**
+     * 携带数据的长按监听
+     */
+    private OnDataLongClickListener<D> mOnDataLongClickListener;
+
+    /**
+     * 子View点击监听
+     */
+    private OnItemChildClickListener<D> mOnItemChildClickListener;
+
+    /**
+     * 需要分发点击事件的子View id
+     */
+    private int[] mChildClickIds;
+
+    /**
+     * 点击监听版本，监听变化后递增，Holder在下次绑定时重新设置
+     */
+    private int mClickListenerVersion;
+
+    /**
+     * 所有Holder共用的点击分发
+     */
+    private final ClickDispatcher mClickDispatcher = new ClickDispatcher();
+
     /**
      * 预加载监听
      */
@@ -77,352 +232,1903 @@ public abstract class VastAdapter<D> extends RecyclerView.Adapter {
      */
     private RecyclerView mHostRv;
 
+    /**
+     * 所在的拼接适配器，为空时独占RecyclerView
+     */
+    VastConcatAdapter mConcatAdapter;
+
+    /**
+     * 耗时统计，为空时不计时
+     */
+    private VastMetrics mMetrics;
+
+    /**
+     * 数据条目的SpanSizeLookup，以数据下标回调
+     */
+    private GridLayoutManager.SpanSizeLookup mDataSpanSizeLookup;
+
+    /**
+     * 已设置给GridLayoutManager的SpanSizeLookup
+     */
+    private VastSpanSizeLookup mSpanSizeLookup;
+
+    /**
+     * attach时的StaggeredGridLayoutManager，其他布局管理器时为空
+     */
+    private StaggeredGridLayoutManager mStaggeredLm;
+
+    /**
+     * 数据条目是否占满整行
+     */
+    private FullSpanLookup<D> mFullSpanLookup;
+
     /**
      * 预加载条目阈值
      */
     private int mPreloadThreshold = PRELOAD_THRESHOLD_DEFAULT;
 
+    /**
+     * 预加载状态
+     */
+    private int mPreloadState = PRELOAD_STATE_IDLE;
+
+    /**
+     * 触发本次预加载时的数据总量，数据总量变化后视为本次加载已完成
+     */
+    private int mPreloadDataCount;
+
+    /**
+     * 预加载状态监听
+     */
+    private OnPreloadStateChangeListener mOnPreloadStateChangeListener;
+
+    /**
+     * 加载更多Footer及其状态监听，与{@link #mOnPreloadStateChangeListener}分别回调
+     */
+    private View mPreloadFooterView;
+
+    private OnPreloadStateChangeListener mPreloadFooterListener;
+
+    /**
+     * 预加载回调，避免在布局过程中直接回调
+     */
+    private final Runnable mPreloadTask = new Runnable() {
+        @Override
+        public void run() {
+            if (mPreloadState == PRELOAD_STATE_LOADING && null != mOnPreloadListener) {
+                mOnPreloadListener.onPreload();
+            }
+        }
+    };
+
+    /**
+     * 滑动时检测预加载，弥补快速滑动时跳过绑定的情况
+     */
+    private final RecyclerView.OnScrollListener mPreloadScrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+            if (null == mOnPreloadListener) {
+                return;
+            }
+            int lastPosition = toLocalPosition(findLastVisiblePosition(recyclerView.getLayoutManager()));
+            if (lastPosition >= 0) {
+                ensureSegments();
+                checkPreload(mSegments.dataCountBefore(lastPosition + 1) - 1);
+            }
+        }
+    };
+
+    /**
+     * 列表差异比较器
+     */
+    private ItemComparator<D> mItemComparator = new EqualsItemComparator<>();
+
+    /**
+     * 数据key提取，不为空时开启stableIds
+     */
+    private KeyExtractor<D> mKeyExtractor;
+
+    /**
+     * 差异计算线程，为空时使用共用后台线程池
+     */
+    private Executor mDiffExecutor;
+
+    /**
+     * 各布局下标对应的Holder创建工厂，未设置时为空
+     */
+    private VastHolderFactory[] mHolderFactories;
+
+    /**
+     * 以布局资源id作为viewType时各布局下标的viewType，布局或工厂变化后重新计算
+     */
+    private int[] mLayoutViewTypes;
+
+    /**
+     * 布局预加载池，未开启预加载时为空
+     */
+    private VastPreInflater mPreInflater;
+
+    /**
+     * 最近一次提交列表的序号，用于丢弃过期的差异结果
+     */
+    private int mMaxScheduledGeneration;
+
+    /**
+     * 最近一次生效列表的序号，与mMaxScheduledGeneration不同时有进行中的差异计算
+     */
+    private int mLatchedGeneration;
+
+    /**
+     * 差异结果分发，按分段表转换为adapter下标
+     */
+    private final DataUpdateCallback mDataUpdateCallback = new DataUpdateCallback();
+
+    /**
+     * 数据变更队列，以列表构建时创建，数据源模式下为空
+     */
+    private final VastMutationQueue<D> mMutationQueue;
+
+    /**
+     * 已恢复数据、滚动位置尚未应用的快照
+     */
+    private VastSnapshot<D> mRestoringSnapshot;
+
+    /**
+     * 条目View状态存储，未开启时为空
+     */
+    private VastViewStateStore mViewStateStore;
+
+    /**
+     * 默认保存状态的View id，为空时默认不保存
+     */
+    private int[] mViewStateIds = new int[0];
+
+    /**
+     * @param data 数据列表，增删改移方法直接修改该列表，需支持修改;调用方也可自行修改后通知刷新
+     */
     public VastAdapter(List<D> data, @LayoutRes int... layoutIds) {
         this.mData = data;
         this.layoutIds = layoutIds;
+        this.mMutationQueue = new VastMutationQueue<>(new MutationTarget());
+    }
+
+    /**
+     * 以数据源构建，只按需读取绑定位置的数据
+     */
+    public VastAdapter(VastDataSource<D> dataSource, @LayoutRes int... layoutIds) {
+        this.mDataSource = dataSource;
+        this.layoutIds = layoutIds;
+        this.mMutationQueue = null;
+        if (dataSource instanceof VastCachedDataSource) {
+            this.mCachedSource = (VastCachedDataSource<D>) dataSource;
+        }
+        dataSource.setObserver(new VastDataSource.Observer() {
+            @Override
+            public void onChanged() {
+                notifyDataSetChanged();
+            }
+
+            @Override
+            public void onRangeLoaded(int start, int count) {
+                notifyDataItemRangeChanged(start, count);
+            }
+        });
     }
 
     @Override
     public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
         super.onAttachedToRecyclerView(recyclerView);
         mHostRv = recyclerView;
-        //处理GridLayoutManager头部兼容
+        mHostRv.addOnScrollListener(mPreloadScrollListener);
+        //处理GridLayoutManager头部兼容，拼接时由拼接适配器统一处理
         RecyclerView.LayoutManager lm = mHostRv.getLayoutManager();
-        if (lm instanceof GridLayoutManager) {
-            final GridLayoutManager glm = (GridLayoutManager) lm;
-            final GridLayoutManager.SpanSizeLookup originalSpanSL = glm.getSpanSizeLookup();
-            glm.setSpanSizeLookup(new GridLayoutManager.SpanSizeLookup() {
-                @Override
-                public int getSpanSize(int position) {
-                    if (isVacancyVisibility() || isHeader(position)
-                            || isFooter(position)) {
-                        return glm.getSpanCount();
-                    } else if (null != originalSpanSL) {
-                        return originalSpanSL.getSpanSize(position - getHeaderCount());
-                    }
-                    return 1;
-                }
-            });
+        if (lm instanceof GridLayoutManager && null == mConcatAdapter) {
+            GridLayoutManager glm = (GridLayoutManager) lm;
+            mSpanSizeLookup = new VastSpanSizeLookup(this, glm, glm.getSpanSizeLookup());
+            glm.setSpanSizeLookup(mSpanSizeLookup);
         }
-    }
-
-    @Override
-    public void onViewAttachedToWindow(@NonNull RecyclerView.ViewHolder holder) {
-        //处理StaggeredGridLayoutManager头部兼容
-        RecyclerView.LayoutManager lm = mHostRv.getLayoutManager();
-        if (lm instanceof StaggeredGridLayoutManager) {
-            View view = holder.itemView;
-            int position = holder.getAdapterPosition();
-            StaggeredGridLayoutManager.LayoutParams lp = (StaggeredGridLayoutManager.LayoutParams) view.getLayoutParams();
-            lp.setFullSpan(isVacancyVisibility() || isHeader(position)
-                    || isFooter(position));
+        //处理StaggeredGridLayoutManager头部兼容，在创建与绑定时设置占满整行
+        mStaggeredLm = lm instanceof StaggeredGridLayoutManager ? (StaggeredGridLayoutManager) lm : null;
+        if (null != mPreInflater) {
+            mPreInflater.start(recyclerView);
+        }
+        if (null != mSharedViewPool) {
+            recyclerView.setRecycledViewPool(mSharedViewPool);
         }
-        super.onViewAttachedToWindow(holder);
+        applyRestoringAnchor();
     }
 
-    @NonNull
-    @Override
-    public final RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
-        if (isVacancyVisibility()) {
-            return new VastHolder(mVacancyHintView);
+    /**
+     * 获取条目的span数量
+     *
+     * @param position 本适配器内的下标
+     * @param fallback 未设置{@link #setDataSpanSizeLookup(GridLayoutManager.SpanSizeLookup)}时使用的数据SpanSizeLookup
+     */
+    final int getSpanSize(int position, int spanCount, GridLayoutManager.SpanSizeLookup fallback) {
+        ensureSegments();
+        int dataPosition = mSegments.dataPositionAt(position);
+        if (dataPosition < 0 || isFullSpanData(dataPosition)) {
+            return spanCount;
         }
+        GridLayoutManager.SpanSizeLookup lookup = null != mDataSpanSizeLookup ? mDataSpanSizeLookup : fallback;
+        return null != lookup ? lookup.getSpanSize(dataPosition) : 1;
+    }
 
-        int position = positionFlag(viewType);
-        if (isHeader(position)) {
-            return new VastHolder(mHeaderViews.get(position));
-        }
-        if (isFooter(position)) {
-            return new VastHolder(mFooterViews.get(position - getDataCount() - getHeaderCount()));
+    /**
+     * RecyclerView中的下标转换为本适配器内的下标，拼接时减去之前适配器的条目数
+     */
+    final int toLocalPosition(int position) {
+        if (null == mConcatAdapter || position == RecyclerView.NO_POSITION) {
+            return position;
         }
+        return mConcatAdapter.toLocalPosition(this, position);
+    }
 
-        final VastHolder vastHolder = new VastHolder(LayoutInflater.from(parent.getContext()).inflate(layoutIds[viewType], parent, false));
-        vastHolder.itemViewIndex = viewType;
-
-        //点击事件处理
-        if (null != mOnItemClickListener) {
-            vastHolder.itemView.setOnClickListener(new View.OnClickListener() {
-                @Override
-                public void onClick(View v) {
-                    int position = getAdapterPosition(vastHolder);
-                    if (position != RecyclerView.NO_POSITION) {
-                        mOnItemClickListener.onClick(position);
-                    }
-                }
-            });
-        }
-        //长按事件处理
-        if (null != mOnItemLongClickListener) {
-            vastHolder.itemView.setOnLongClickListener(new View.OnLongClickListener() {
-                @Override
-                public boolean onLongClick(View v) {
-                    int position = getAdapterPosition(vastHolder);
-                    if (position != RecyclerView.NO_POSITION) {
-                        return mOnItemLongClickListener.onLongClick(position);
-                    }
-                    return false;
-                }
-            });
-        }
-        onCreateHolder(vastHolder);
-        return vastHolder;
+    /**
+     * 本适配器内的下标转换为RecyclerView中的下标，拼接时加上之前适配器的条目数
+     */
+    final int toHostPosition(int position) {
+        return null == mConcatAdapter ? position : position - mConcatAdapter.toLocalPosition(this, 0);
     }
 
     /**
-     * 获取对应Holder的AdapterPosition值
+     * 是否为Header/Footer或空缺view的viewType
      */
-    public int getAdapterPosition(VastHolder holder) {
-        int adapterPosition = holder.getAdapterPosition();
-        if (adapterPosition == RecyclerView.NO_POSITION) {
-            return RecyclerView.NO_POSITION;
-        }
-        return adapterPosition - getHeaderCount();
+    final boolean isFixedViewType(int viewType) {
+        return viewType == mVacancyViewType || null != mFixedViews.get(viewType);
     }
 
     /**
-     * 获取对应Holder的LayoutPosition值
+     * 是否以布局资源id作为viewType
      */
-    public int getLayoutPosition(VastHolder holder) {
-        return holder.getLayoutPosition() - getHeaderCount();
+    final boolean isLayoutIdViewTypeEnabled() {
+        return mLayoutIdViewType;
     }
 
     @Override
-    public final void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
-        if (isVacancyVisibility() || isHeader(position)
-                || isFooter(position)) {
-            return;
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        recyclerView.removeOnScrollListener(mPreloadScrollListener);
+        //还原GridLayoutManager原有的SpanSizeLookup
+        RecyclerView.LayoutManager lm = recyclerView.getLayoutManager();
+        if (null != mSpanSizeLookup && lm instanceof GridLayoutManager
+                && ((GridLayoutManager) lm).getSpanSizeLookup() == mSpanSizeLookup) {
+            ((GridLayoutManager) lm).setSpanSizeLookup(mSpanSizeLookup.original);
         }
-
-        int dataPosition = position - getHeaderCount();
-        bindHolder((VastHolder) holder, mData.get(dataPosition), dataPosition);
-
-        //处理预加载
-        if (checkPreload(dataPosition)) {
-            mOnPreloadListener.onPreload();
+        mSpanSizeLookup = null;
+        mStaggeredLm = null;
+        if (null != mPreInflater) {
+            mPreInflater.stop();
         }
+        super.onDetachedFromRecyclerView(recyclerView);
     }
 
     /**
-     * 检测是否触发预加载
+     * Holder被回收时取消其进行中的图片加载与文本预计算并保存View状态，重写时需调用super
      */
-    private boolean checkPreload(int position) {
-        return null != mOnPreloadListener
-                && mHostRv.getScrollState() != RecyclerView.SCROLL_STATE_IDLE
-                && Math.max(getDataCount() - 1 - position, 0) == mPreloadThreshold;
-    }
-
     @Override
-    public final int getItemViewType(int position) {
-        if (isVacancyVisibility()) {
-            return -1;
-        }
-        if (isHeader(position) || isFooter(position)) {
-            return positionFlag(position);
+    public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder) {
+        if (holder instanceof VastHolder) {
+            ((VastHolder) holder).cancelPendingLoads();
+            if (null != mViewStateStore) {
+                saveItemViewState((VastHolder) holder);
+            }
+            ((VastHolder) holder).stateKey = RecyclerView.NO_ID;
+            unpinHolder((VastHolder) holder);
         }
-        return getItemViewIndex(position);
+        super.onViewRecycled(holder);
     }
 
     /**
-     * 对Header和Footer的position进行标签转换，来充当viewType;以区别于正常的viewType.
+     * 设置StaggeredGridLayoutManager下条目是否占满整行
+     * <p>
+     * 在创建与绑定时设置，早于测量与布局，避免attach后修改引起重新布局.
      */
-    private int positionFlag(int target) {
-        return target ^ HEADER_FOOTER_VIEW_TYPE_FLAG;
+    private void applyFullSpan(View itemView, boolean fullSpan) {
+        ViewGroup.LayoutParams lp = itemView.getLayoutParams();
+        if (lp instanceof StaggeredGridLayoutManager.LayoutParams) {
+            StaggeredGridLayoutManager.LayoutParams slp = (StaggeredGridLayoutManager.LayoutParams) lp;
+            if (slp.isFullSpan() != fullSpan) {
+                slp.setFullSpan(fullSpan);
+            }
+        } else if (fullSpan) {
+            StaggeredGridLayoutManager.LayoutParams slp = (StaggeredGridLayoutManager.LayoutParams)
+                    (null == lp ? mStaggeredLm.generateDefaultLayoutParams() : mStaggeredLm.generateLayoutParams(lp));
+            slp.setFullSpan(true);
+            itemView.setLayoutParams(slp);
+        }
     }
 
-
+    @NonNull
     @Override
-    public final int getItemCount() {
-        if (isVacancyVisibility()) {
-            return 1;
+    public final RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        if (null == mMetrics) {
+            return createHolder(parent, viewType);
         }
-        return getHeaderCount() + getFooterCount() + getDataCount();
+        long start = System.nanoTime();
+        RecyclerView.ViewHolder holder = createHolder(parent, viewType);
+        mMetrics.recordCreate(metricsTypeOf(viewType, holder), System.nanoTime() - start);
+        return holder;
     }
 
-    /**
-     * 是否是头view
-     */
-    private boolean isHeader(int position) {
-        return position >= 0 && position < getHeaderCount();
+    private RecyclerView.ViewHolder createHolder(ViewGroup parent, int viewType) {
+        if (viewType == mVacancyViewType) {
+            if (null != mStaggeredLm) {
+                applyFullSpan(mVacancyHintView, true);
+            }
+            return createFixedHolder(mVacancyHintView);
+        }
+
+        FixedView fixedView = mFixedViews.get(viewType);
+        if (null != fixedView) {
+            if (null != mStaggeredLm) {
+                applyFullSpan(fixedView.view, true);
+            }
+            return createFixedHolder(fixedView.view);
+        }
+
+        int layoutIndex = mLayoutIdViewType ? indexOfLayoutViewType(viewType) : viewType;
+        View itemView = null != mPreInflater ? mPreInflater.obtain(layoutIndex) : null;
+        if (null == itemView) {
+            long start = null != mMetrics ? System.nanoTime() : 0;
+            itemView = LayoutInflater.from(parent.getContext()).inflate(layoutIds[layoutIndex], parent, false);
+            if (null != mMetrics) {
+                mMetrics.recordInflate(layoutIndex, System.nanoTime() - start);
+            }
+        }
+        VastHolderFactory factory = getHolderFactory(layoutIndex);
+        VastHolder vastHolder = null != factory ? factory.create(itemView) : new VastHolder(itemView);
+        vastHolder.factory = factory;
+        vastHolder.itemViewIndex = layoutIndex;
+        setupHolder(vastHolder);
+        return vastHolder;
     }
 
     /**
-     * 是否是尾view
+     * 创建固定View的Holder
+     * <p>
+     * 固定View只属于当前适配器，Holder不进入回收池，再次显示时以同一View重新创建.
      */
-    private boolean isFooter(int position) {
-        int frontCount = getHeaderCount() + getDataCount();
-        return position >= frontCount && position - frontCount < getFooterCount();
+    private static VastHolder createFixedHolder(View view) {
+        VastHolder holder = new VastHolder(view);
+        holder.setIsRecyclable(false);
+        return holder;
     }
 
     /**
-     * 是否展示无列表提示View
+     * 为Holder设置事件监听，并回调{@link #onCreateHolder(VastHolder)}
+     * <p>
+     * 条目View的点击分发只在此处设置一次，之后监听变化只更新可点击状态，{@link #onCreateHolder(VastHolder)}中设置的监听不会被覆盖;
+     * 共用回收池时，其他适配器创建的Holder在首次绑定前也会经过该处理.
      */
-    private boolean isVacancyVisibility() {
-        return (mHeaderViews.size() + mFooterViews.size() + getDataCount()) < 1 && null != mVacancyHintView;
+    private void setupHolder(VastHolder vastHolder) {
+        vastHolder.ownerAdapter = this;
+        View itemView = vastHolder.itemView;
+        //接管其他适配器的Holder时，先还原其维护的可点击状态
+        boolean clickable = !vastHolder.managesClick && itemView.isClickable();
+        boolean longClickable = !vastHolder.managesLongClick && itemView.isLongClickable();
+        itemView.setOnClickListener(mClickDispatcher);
+        itemView.setOnLongClickListener(mClickDispatcher);
+        itemView.setClickable(clickable);
+        itemView.setLongClickable(longClickable);
+        onCreateHolder(vastHolder);
+        //仍不可点击时由适配器按监听维护，布局或onCreateHolder设为可点击时保持不变
+        vastHolder.managesClick = !itemView.isClickable();
+        vastHolder.managesLongClick = !itemView.isLongClickable();
+        setupClickListeners(vastHolder);
     }
 
     /**
-     * 添加头部view
-     *
-     * @param view 添加对象view
-     * @return 对应的下标
+     * 按已注册的监听更新Holder的点击状态
+     * <p>
+     * 条目View只更新由适配器维护的可点击状态，监听全部为空时不可点击;
+     * 子View按{@link #setOnItemChildClickListener(OnItemChildClickListener, int...)}设置点击分发，监听为空或id变化时移除并还原可点击状态.
      */
-    public int addHeaderView(View view) {
-        int index = mHeaderViews.size();
-        if (!addHeaderView(index, view)) {
-            index = -1;
+    private void setupClickListeners(VastHolder vastHolder) {
+        vastHolder.clickListenerVersion = mClickListenerVersion;
+        View itemView = vastHolder.itemView;
+        if (vastHolder.managesClick) {
+            itemView.setClickable(null != mOnItemClickListener || null != mOnDataClickListener);
         }
-        return index;
+        if (vastHolder.managesLongClick) {
+            itemView.setLongClickable(null != mOnItemLongClickListener || null != mOnDataLongClickListener);
+        }
+        int[] childIds = null != mOnItemChildClickListener ? mChildClickIds : null;
+        if (vastHolder.childClickIds == childIds) {
+            return;
+        }
+        if (null != vastHolder.childClickIds) {
+            for (int i = 0; i < vastHolder.childClickIds.length; i++) {
+                View child = vastHolder.getViewById(vastHolder.childClickIds[i]);
+                if (null != child) {
+                    child.setOnClickListener(null);
+                    child.setClickable(vastHolder.childClickable[i]);
+                }
+            }
+        }
+        vastHolder.childClickIds = childIds;
+        vastHolder.childClickable = null;
+        if (null != childIds) {
+            vastHolder.childClickable = new boolean[childIds.length];
+            for (int i = 0; i < childIds.length; i++) {
+                View child = vastHolder.getViewById(childIds[i]);
+                if (null != child) {
+                    vastHolder.childClickable[i] = child.isClickable();
+                    child.setOnClickListener(mClickDispatcher);
+                }
+            }
+        }
+    }
+
+    /**
+     * 点击监听变化后，立即更新已显示的Holder，其余Holder在下次绑定时更新
+     */
+    private void onClickListenersChanged() {
+        mClickListenerVersion++;
+        if (null == mHostRv) {
+            return;
+        }
+        for (int i = 0, count = mHostRv.getChildCount(); i < count; i++) {
+            RecyclerView.ViewHolder holder = mHostRv.getChildViewHolder(mHostRv.getChildAt(i));
+            if (holder instanceof VastHolder && ((VastHolder) holder).ownerAdapter == this
+                    && ((VastHolder) holder).itemViewIndex >= 0) {
+                setupClickListeners((VastHolder) holder);
+            }
+        }
+    }
+
+    /**
+     * 获取viewType在耗时统计中的条目类型
+     */
+    private int metricsTypeOf(int viewType, RecyclerView.ViewHolder holder) {
+        if (viewType == mVacancyViewType) {
+            return VastMetrics.TYPE_VACANCY;
+        }
+        if (null == mFixedViews.get(viewType)) {
+            return ((VastHolder) holder).itemViewIndex;
+        }
+        if (containsViewType(mHeaderViews, viewType)) {
+            return VastMetrics.TYPE_HEADER;
+        }
+        for (int i = 0, size = mSections.size(); i < size; i++) {
+            if (containsViewType(mSections.get(i).headers, viewType)) {
+                return VastMetrics.TYPE_HEADER;
+            }
+        }
+        return VastMetrics.TYPE_FOOTER;
+    }
+
+    private static boolean containsViewType(List<FixedView> fixedViews, int viewType) {
+        for (int i = 0, size = fixedViews.size(); i < size; i++) {
+            if (fixedViews.get(i).viewType == viewType) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 以布局资源id作为viewType时，获取各布局下标的viewType
+     * <p>
+     * 未设置Holder工厂的布局即为布局资源id，设置了工厂的布局按工厂与布局id分配.
+     */
+    private int[] getLayoutViewTypes() {
+        if (null == mLayoutViewTypes) {
+            int[] viewTypes = new int[layoutIds.length];
+            for (int i = 0; i < viewTypes.length; i++) {
+                VastHolderFactory factory = getHolderFactory(i);
+                viewTypes[i] = null == factory ? layoutIds[i] : factoryViewType(factory, layoutIds[i]);
+            }
+            mLayoutViewTypes = viewTypes;
+        }
+        return mLayoutViewTypes;
+    }
+
+    /**
+     * 以布局资源id作为viewType时，根据viewType查找布局下标
+     */
+    private int indexOfLayoutViewType(int viewType) {
+        int[] viewTypes = getLayoutViewTypes();
+        for (int i = 0; i < viewTypes.length; i++) {
+            if (viewTypes[i] == viewType) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("view type " + viewType + " is not declared by this adapter");
+    }
+
+    private VastHolderFactory getHolderFactory(int layoutIndex) {
+        return null != mHolderFactories ? mHolderFactories[layoutIndex] : null;
+    }
+
+    /**
+     * 获取工厂与布局对应的viewType，首次使用时分配
+     */
+    private static int factoryViewType(VastHolderFactory factory, int layoutId) {
+        synchronized (sFactoryViewTypes) {
+            SparseIntArray viewTypes = sFactoryViewTypes.get(factory);
+            if (null == viewTypes) {
+                viewTypes = new SparseIntArray();
+                sFactoryViewTypes.put(factory, viewTypes);
+            }
+            int index = viewTypes.indexOfKey(layoutId);
+            if (index >= 0) {
+                return viewTypes.valueAt(index);
+            }
+            int viewType = sNextFactoryViewType++;
+            viewTypes.put(layoutId, viewType);
+            sFactoryViewTypeLayouts.put(viewType, layoutId);
+            return viewType;
+        }
+    }
+
+    /**
+     * 获取viewType对应的布局资源id，用于共用回收池按布局设置容量
+     *
+     * @return 不是工厂布局的viewType时原样返回
+     */
+    static int layoutIdOfViewType(int viewType) {
+        synchronized (sFactoryViewTypes) {
+            return sFactoryViewTypeLayouts.get(viewType, viewType);
+        }
+    }
+
+    /**
+     * 获取对应Holder的AdapterPosition值
+     */
+    public int getAdapterPosition(VastHolder holder) {
+        int adapterPosition = toLocalPosition(holder.getAdapterPosition());
+        if (adapterPosition == RecyclerView.NO_POSITION) {
+            return RecyclerView.NO_POSITION;
+        }
+        ensureSegments();
+        return mSegments.dataPositionAt(adapterPosition);
+    }
+
+    /**
+     * 获取对应Holder的LayoutPosition值
+     */
+    public int getLayoutPosition(VastHolder holder) {
+        ensureSegments();
+        return mSegments.dataPositionAt(toLocalPosition(holder.getLayoutPosition()));
+    }
+
+    @Override
+    public final void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        onBindViewHolder(holder, position, Collections.emptyList());
+    }
+
+    @Override
+    public final void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position, @NonNull List payloads) {
+        ensureSegments();
+        int dataPosition = mSegments.dataPositionAt(position);
+        if (dataPosition < 0) {
+            return;
+        }
+
+        VastHolder vastHolder = (VastHolder) holder;
+        if (vastHolder.ownerAdapter != this) {
+            //来自共用回收池中其他适配器创建的Holder
+            int viewType = getItemViewType(position);
+            int layoutIndex = mLayoutIdViewType ? indexOfLayoutViewType(viewType) : viewType;
+            if (vastHolder.factory != getHolderFactory(layoutIndex)) {
+                //以布局下标作为viewType直接共用回收池时，不同适配器的同一viewType可能对应不同的Holder
+                throw new IllegalStateException("holder " + vastHolder.getClass().getName()
+                        + " from a shared pool was not created by the factory of layout index " + layoutIndex
+                        + ", share pools through setSharedViewPool or enable layout id view types");
+            }
+            vastHolder.itemViewIndex = layoutIndex;
+            setupHolder(vastHolder);
+        } else if (vastHolder.clickListenerVersion != mClickListenerVersion) {
+            setupClickListeners(vastHolder);
+        }
+
+        if (null != mStaggeredLm) {
+            applyFullSpan(vastHolder.itemView, isFullSpanData(dataPosition));
+        }
+
+        if (null != mCachedSource && vastHolder.pinnedPosition != dataPosition) {
+            unpinHolder(vastHolder);
+            mCachedSource.pin(dataPosition);
+            vastHolder.pinnedPosition = dataPosition;
+        }
+
+        long start = null != mMetrics ? System.nanoTime() : 0;
+        if (payloads.isEmpty()) {
+            //局部刷新仍为同一条数据，只有整体绑定才使进行中的异步结果过期
+            vastHolder.bindGeneration++;
+            D data = getDataForBind(dataPosition);
+            if (null != mViewStateStore && null != mKeyExtractor) {
+                //整体绑定会重置View，先保存之前数据的状态，绑定后恢复当前数据的状态
+                saveItemViewState(vastHolder);
+                bindHolder(vastHolder, data, dataPosition);
+                if (null != data) {
+                    restoreItemViewState(vastHolder, mKeyExtractor.getKey(data));
+                } else {
+                    vastHolder.stateKey = RecyclerView.NO_ID;
+                }
+            } else {
+                bindHolder(vastHolder, data, dataPosition);
+            }
+        } else {
+            bindHolder(vastHolder, getDataForBind(dataPosition), dataPosition, (List<Object>) payloads);
+        }
+        if (null != mMetrics) {
+            mMetrics.recordBind(vastHolder.itemViewIndex, dataPosition, System.nanoTime() - start);
+        }
+
+        //处理预加载
+        checkPreload(dataPosition);
+    }
+
+    /**
+     * Holder不再显示之前绑定的数据，所在页可被分页缓存淘汰
+     */
+    private void unpinHolder(VastHolder holder) {
+        if (holder.pinnedPosition >= 0 && null != mCachedSource) {
+            mCachedSource.unpin(holder.pinnedPosition);
+        }
+        holder.pinnedPosition = -1;
+    }
+
+    /**
+     * 检测是否触发预加载
+     * <p>
+     * 剩余条目不超过阈值且当前没有进行中的预加载时触发，同一页数据只触发一次.
+     *
+     * @param position 数据下标
+     */
+    private void checkPreload(int position) {
+        if (null == mOnPreloadListener) {
+            return;
+        }
+        int dataCount = getDataCount();
+        if (mPreloadState == PRELOAD_STATE_LOADING && dataCount != mPreloadDataCount) {
+            //数据已追加，视为本次加载完成
+            setPreloadState(PRELOAD_STATE_IDLE);
+        }
+        if (mPreloadState == PRELOAD_STATE_IDLE && dataCount - 1 - position <= mPreloadThreshold) {
+            mPreloadDataCount = dataCount;
+            setPreloadState(PRELOAD_STATE_LOADING);
+            if (null != mHostRv) {
+                mHostRv.post(mPreloadTask);
+            } else {
+                mPreloadTask.run();
+            }
+        }
+    }
+
+    /**
+     * 获取最后一个可见条目的adapter下标
+     */
+    private static int findLastVisiblePosition(RecyclerView.LayoutManager lm) {
+        if (lm instanceof LinearLayoutManager) {
+            return ((LinearLayoutManager) lm).findLastVisibleItemPosition();
+        }
+        if (lm instanceof StaggeredGridLayoutManager) {
+            int lastPosition = RecyclerView.NO_POSITION;
+            for (int position : ((StaggeredGridLayoutManager) lm).findLastVisibleItemPositions(null)) {
+                lastPosition = Math.max(lastPosition, position);
+            }
+            return lastPosition;
+        }
+        return RecyclerView.NO_POSITION;
+    }
+
+    /**
+     * 更新预加载状态并回调
+     */
+    private void setPreloadState(int state) {
+        if (mPreloadState != state) {
+            mPreloadState = state;
+            if (null != mPreloadFooterListener) {
+                mPreloadFooterListener.onPreloadStateChanged(state);
+            }
+            if (null != mOnPreloadStateChangeListener) {
+                mOnPreloadStateChangeListener.onPreloadStateChanged(state);
+            }
+        }
+    }
+
+    /**
+     * 通知预加载完成
+     *
+     * @param hasMore 是否还有更多数据，没有时不再触发预加载
+     */
+    public void notifyPreloadComplete(boolean hasMore) {
+        setPreloadState(hasMore ? PRELOAD_STATE_IDLE : PRELOAD_STATE_EXHAUSTED);
+    }
+
+    /**
+     * 通知预加载失败，失败后需调用{@link #retryPreload()}重新触发
+     */
+    public void notifyPreloadError() {
+        setPreloadState(PRELOAD_STATE_ERROR);
+    }
+
+    /**
+     * 重新触发预加载
+     */
+    public void retryPreload() {
+        setPreloadState(PRELOAD_STATE_IDLE);
+        checkPreload(getDataCount() - 1);
+    }
+
+    /**
+     * 重置预加载状态，如下拉刷新替换数据之后
+     */
+    public void resetPreload() {
+        setPreloadState(PRELOAD_STATE_IDLE);
+    }
+
+    /**
+     * 获取预加载状态
+     */
+    public int getPreloadState() {
+        return mPreloadState;
+    }
+
+    @Override
+    public final int getItemViewType(int position) {
+        ensureSegments();
+        int kind = mSegments.kindAt(position);
+        if (kind == VastSegmentTable.KIND_VACANCY) {
+            return mVacancyViewType;
+        }
+        if (kind == VastSegmentTable.KIND_FIXED) {
+            return mSegments.fixedViewTypeAt(position);
+        }
+        int layoutIndex = getItemViewIndex(position);
+        return mLayoutIdViewType ? getLayoutViewTypes()[layoutIndex] : layoutIndex;
+    }
+
+
+    @Override
+    public final long getItemId(int position) {
+        if (null == mKeyExtractor) {
+            return RecyclerView.NO_ID;
+        }
+        ensureSegments();
+        int kind = mSegments.kindAt(position);
+        if (kind == VastSegmentTable.KIND_VACANCY) {
+            return RESERVED_ITEM_ID_START;
+        }
+        if (kind == VastSegmentTable.KIND_FIXED) {
+            return fixedItemId(mFixedViews.get(mSegments.fixedViewTypeAt(position)));
+        }
+        int dataPosition = mSegments.dataPositionAt(position);
+        D data = getData(dataPosition);
+        if (null == data) {
+            //分页或数据源尚未就绪的占位数据
+            return PLACEHOLDER_ITEM_ID_START + dataPosition;
+        }
+        long key = mKeyExtractor.getKey(data);
+        if (key >= RESERVED_ITEM_ID_START && key < RESERVED_ITEM_ID_END) {
+            throw new IllegalArgumentException("key " + key + " falls into the range reserved for header/footer/vacancy ids");
+        }
+        return key;
+    }
+
+    /**
+     * 根据Header/Footer的序号得到保留区间内的itemId
+     * <p>
+     * viewType移除后会再次分配，itemId按序号区分，新的Header/Footer不会沿用已移除View的Holder.
+     */
+    private static long fixedItemId(FixedView fixedView) {
+        return RESERVED_ITEM_ID_START + 1 + fixedView.serial;
+    }
+
+    @Override
+    public final int getItemCount() {
+        ensureSegments();
+        return mSegments.getItemCount();
+    }
+
+    /**
+     * 是否展示无列表提示View
+     */
+    private boolean isVacancyVisibility() {
+        ensureSegments();
+        return mSegments.isVacancy();
+    }
+
+    /**
+     * 结构变化或数据总量变化后重建分段表
+     */
+    private void ensureSegments() {
+        segmentsFor(getDataCount());
+    }
+
+    /**
+     * 获取指定数据总量下的分段表，分发数据变化时以变化前后的数据总量构建
+     */
+    private VastSegmentTable segmentsFor(int dataCount) {
+        if (!mSegmentsDirty && dataCount == mSegmentDataCount) {
+            return mSegments;
+        }
+        mSegmentsDirty = false;
+        mSegmentDataCount = dataCount;
+        mSegments.clear();
+        invalidateSpanCache();
+
+        if (isVacancyFor(dataCount)) {
+            mSegments.appendVacancy();
+            return mSegments;
+        }
+
+        appendFixedSegments(mHeaderViews);
+        int remaining = dataCount;
+        for (int i = 0, size = mSections.size(); i < size; i++) {
+            FixedSection section = mSections.get(i);
+            appendFixedSegments(section.headers);
+            int count = Math.min(section.dataCount, remaining);
+            mSegments.appendData(count);
+            remaining -= count;
+            appendFixedSegments(section.footers);
+        }
+        mSegments.appendData(remaining);
+        appendFixedSegments(mFooterViews);
+        return mSegments;
+    }
+
+    /**
+     * 指定数据总量下是否展示空缺view
+     */
+    private boolean isVacancyFor(int dataCount) {
+        if (dataCount > 0 || null == mVacancyHintView || !mHeaderViews.isEmpty() || !mFooterViews.isEmpty()) {
+            return false;
+        }
+        for (int i = 0, size = mSections.size(); i < size; i++) {
+            if (!mSections.get(i).headers.isEmpty() || !mSections.get(i).footers.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void appendFixedSegments(List<FixedView> fixedViews) {
+        for (int i = 0, size = fixedViews.size(); i < size; i++) {
+            mSegments.appendFixed(fixedViews.get(i).viewType);
+        }
+    }
+
+    /**
+     * 数据下标转换为adapter下标
+     */
+    final int toAdapterPosition(int dataPosition) {
+        if (mSections.isEmpty()) {
+            return getHeaderCount() + dataPosition;
+        }
+        ensureSegments();
+        return mSegments.adapterPositionOf(dataPosition);
+    }
+
+    /**
+     * 按数据下标通知区间变化，存在分组时按adapter中的连续区间拆分
+     *
+     * @param dataCount 当前的数据总量
+     */
+    private void dispatchDataChanged(int dataCount, int dataPositionStart, int itemCount, Object payload) {
+        if (mSections.isEmpty()) {
+            if (itemCount > 0) {
+                notifyItemRangeChanged(getHeaderCount() + dataPositionStart, itemCount, payload);
+            }
+            return;
+        }
+        while (itemCount > 0) {
+            VastSegmentTable segments = segmentsFor(dataCount);
+            int count = Math.min(itemCount, segments.dataRunLength(dataPositionStart));
+            notifyItemRangeChanged(segments.adapterPositionOf(dataPositionStart), count, payload);
+            dataPositionStart += count;
+            itemCount -= count;
+        }
+    }
+
+    /**
+     * 按数据下标通知区间插入，插入位置所在的分组随之扩大，插入的条目在adapter中始终连续
+     *
+     * @param dataCount 插入前的数据总量
+     */
+    private void dispatchDataInserted(int dataCount, int dataPositionStart, int itemCount) {
+        if (itemCount <= 0) {
+            return;
+        }
+        growSection(dataCount, dataPositionStart, itemCount);
+        if (isVacancyFor(dataCount) || isVacancyFor(dataCount + itemCount)) {
+            //空缺view与数据之间切换，条目结构整体变化
+            notifyDataSetChanged();
+        } else if (mSections.isEmpty()) {
+            notifyItemRangeInserted(getHeaderCount() + dataPositionStart, itemCount);
+        } else {
+            notifyItemRangeInserted(segmentsFor(dataCount + itemCount).adapterPositionOf(dataPositionStart), itemCount);
+        }
+    }
+
+    /**
+     * 按数据下标通知区间移除，存在分组时按移除前adapter中的连续区间拆分，所在分组随之缩小
+     *
+     * @param dataCount 移除前的数据总量
+     */
+    private void dispatchDataRemoved(int dataCount, int dataPositionStart, int itemCount) {
+        if (itemCount <= 0) {
+            return;
+        }
+        if (isVacancyFor(dataCount) || isVacancyFor(dataCount - itemCount)) {
+            shrinkSections(dataCount, dataPositionStart, itemCount);
+            notifyDataSetChanged();
+            return;
+        }
+        if (mSections.isEmpty()) {
+            notifyItemRangeRemoved(getHeaderCount() + dataPositionStart, itemCount);
+            return;
+        }
+        int removed = 0;
+        while (removed < itemCount) {
+            VastSegmentTable segments = segmentsFor(dataCount);
+            int position = dataPositionStart + removed;
+            int count = Math.min(itemCount - removed, segments.dataRunLength(position));
+            //前面的区间已移除，后面区间的adapter下标随之前移
+            notifyItemRangeRemoved(segments.adapterPositionOf(position) - removed, count);
+            removed += count;
+        }
+        shrinkSections(dataCount, dataPositionStart, itemCount);
+    }
+
+    /**
+     * 按数据下标通知条目移动，条目从原分组移入目标位置所在的分组
+     *
+     * @param dataCount 当前的数据总量
+     */
+    private void dispatchDataMoved(int dataCount, int fromDataPosition, int toDataPosition) {
+        if (mSections.isEmpty()) {
+            notifyItemMoved(getHeaderCount() + fromDataPosition, getHeaderCount() + toDataPosition);
+            return;
+        }
+        int fromPosition = segmentsFor(dataCount).adapterPositionOf(fromDataPosition);
+        shrinkSections(dataCount, fromDataPosition, 1);
+        growSection(dataCount - 1, toDataPosition, 1);
+        notifyItemMoved(fromPosition, segmentsFor(dataCount).adapterPositionOf(toDataPosition));
+    }
+
+    /**
+     * 整体通知全部数据插入或移除，分组数量保持不变，按adapter中的连续区间拆分
+     *
+     * @param dataCount 插入后或移除前的数据总量
+     */
+    private void dispatchDataReplaced(int dataCount, boolean inserted) {
+        if (mSections.isEmpty()) {
+            if (dataCount > 0 && inserted) {
+                notifyItemRangeInserted(getHeaderCount(), dataCount);
+            } else if (dataCount > 0) {
+                notifyItemRangeRemoved(getHeaderCount(), dataCount);
+            }
+            return;
+        }
+        int position = 0;
+        while (position < dataCount) {
+            VastSegmentTable segments = segmentsFor(dataCount);
+            int count = Math.min(dataCount - position, segments.dataRunLength(position));
+            if (inserted) {
+                //按顺序插入，前面的区间均已就位
+                notifyItemRangeInserted(segments.adapterPositionOf(position), count);
+            } else {
+                notifyItemRangeRemoved(segments.adapterPositionOf(position) - position, count);
+            }
+            position += count;
+        }
+    }
+
+    /**
+     * 插入数据后扩大插入位置所在的分组
+     * <p>
+     * 插入位置位于分组的数据之间时该分组扩大;位于数据末尾时，由数据未填满的分组接收，
+     * 所有分组均已填满时插入到分组之后的剩余数据中，分组不变.
+     *
+     * @param dataCount 插入前的数据总量
+     */
+    private void growSection(int dataCount, int dataPosition, int itemCount) {
+        int sectionStart = 0;
+        for (int i = 0, size = mSections.size(); i < size; i++) {
+            FixedSection section = mSections.get(i);
+            int count = Math.max(Math.min(section.dataCount, dataCount - sectionStart), 0);
+            if (dataPosition < sectionStart + count || count < section.dataCount) {
+                //数据未填满的分组同样扩大到容纳全部插入的条目，保证插入的条目连续
+                section.dataCount = Math.max(section.dataCount, count + itemCount);
+                mSegmentsDirty = true;
+                return;
+            }
+            sectionStart += count;
+        }
+    }
+
+    /**
+     * 移除数据后缩小已填满的分组，未填满的分组随数据总量自然缩小
+     *
+     * @param dataCount 移除前的数据总量
+     */
+    private void shrinkSections(int dataCount, int dataPositionStart, int itemCount) {
+        int dataPositionEnd = dataPositionStart + itemCount;
+        int sectionStart = 0;
+        for (int i = 0, size = mSections.size(); i < size && sectionStart < dataPositionEnd; i++) {
+            FixedSection section = mSections.get(i);
+            int count = Math.max(Math.min(section.dataCount, dataCount - sectionStart), 0);
+            int overlap = Math.min(dataPositionEnd, sectionStart + count) - Math.max(dataPositionStart, sectionStart);
+            if (count == section.dataCount && overlap > 0) {
+                section.dataCount -= overlap;
+                mSegmentsDirty = true;
+            }
+            sectionStart += count;
+        }
+    }
+
+    /**
+     * 添加头部view
+     *
+     * @param view 添加对象view
+     * @return 对应的下标
+     */
+    public int addHeaderView(View view) {
+        int index = mHeaderViews.size();
+        if (!addHeaderView(index, view)) {
+            index = -1;
+        }
+        return index;
+    }
+
+    /**
+     * 添加/插入头部
+     *
+     * @param index 目标下标
+     * @param view  添加对象view
+     * @return 是否成功
+     */
+    public boolean addHeaderView(int index, View view) {
+        if (index < 0 || index > mHeaderViews.size() || view == null) {
+            return false;
+        }
+        boolean vacancyBefore = isVacancyVisibility();
+        mHeaderViews.add(index, obtainFixedView(view));
+        notifyStructureInserted(vacancyBefore, index, 1);
+        return true;
+    }
+
+    /**
+     * 获取头部view数量
+     */
+    public final int getHeaderCount() {
+        return mHeaderViews.size();
+    }
+
+    /**
+     * 移除头部view
+     *
+     * @param index 下标
+     * @return 移除的HeaderView
+     */
+    public View removeHeaderView(int index) {
+        if (index >= 0 && mHeaderViews.size() > index) {
+            boolean vacancyBefore = isVacancyVisibility();
+            View view = releaseFixedView(mHeaderViews.remove(index));
+            notifyStructureRemoved(vacancyBefore, index, 1);
+            return view;
+        }
+        return null;
+    }
+
+    /**
+     * 移除头部view
+     *
+     * @param view 指定view
+     * @return 返回移除的对应下标
+     */
+    public int removeHeaderView(View view) {
+        int index = -1;
+        if (null != view) {
+            index = indexOfFixedView(mHeaderViews, view);
+            if (null == removeHeaderView(index)) {
+                index = -1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 移除全部头部view
+     *
+     * @return 返回移除的总个数
+     */
+    public int removeAllHeaderView() {
+        int count = getHeaderCount();
+        boolean vacancyBefore = isVacancyVisibility();
+        for (FixedView fixedView : mHeaderViews) {
+            releaseFixedView(fixedView);
+        }
+        mHeaderViews.clear();
+        notifyStructureRemoved(vacancyBefore, 0, count);
+        return count;
+    }
+
+    /**
+     * 添加尾部View
+     *
+     * @param view 添加对象view
+     * @return 对应的下标
+     */
+    public int addFooterView(View view) {
+        int index = mFooterViews.size();
+        if (!addFooterView(index, view)) {
+            index = -1;
+        }
+        return index;
+    }
+
+    /**
+     * 添加/插入尾部view
+     *
+     * @param index 目标下标
+     * @param view  添加对象view
+     * @retrun 是否成功
+     */
+    public boolean addFooterView(int index, View view) {
+        if (index < 0 || index > mFooterViews.size() || view == null) {
+            return false;
+        }
+        boolean vacancyBefore = isVacancyVisibility();
+        int position = getItemCount() - getFooterCount() + index;
+        mFooterViews.add(index, obtainFixedView(view));
+        notifyStructureInserted(vacancyBefore, position, 1);
+        return true;
+    }
+
+    /**
+     * 获取尾部view的个数
+     */
+    public final int getFooterCount() {
+        return mFooterViews.size();
+    }
+
+    /**
+     * 移除尾部view
+     *
+     * @param index 下标
+     * @return 移除的FooterView
+     */
+    public View removeFooterView(int index) {
+        if (index >= 0 && mFooterViews.size() > index) {
+            boolean vacancyBefore = isVacancyVisibility();
+            int position = getItemCount() - getFooterCount() + index;
+            View view = releaseFixedView(mFooterViews.remove(index));
+            notifyStructureRemoved(vacancyBefore, position, 1);
+            return view;
+        }
+        return null;
+    }
+
+    /**
+     * 移除尾部view
+     *
+     * @param view 指定view
+     * @return 返回移除的对应下标
+     */
+    public int removeFooterView(View view) {
+        int index = -1;
+        if (null != view) {
+            index = indexOfFixedView(mFooterViews, view);
+            if (null == removeFooterView(index)) {
+                index = -1;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 移除全部尾部view
+     *
+     * @return 返回移除的总个数
+     */
+    public int removeAllFooterView() {
+        int count = getFooterCount();
+        boolean vacancyBefore = isVacancyVisibility();
+        int position = getItemCount() - count;
+        for (FixedView fixedView : mFooterViews) {
+            releaseFixedView(fixedView);
+        }
+        mFooterViews.clear();
+        notifyStructureRemoved(vacancyBefore, position, count);
+        return count;
     }
 
     /**
-     * 添加/插入头部
+     * 为Header/Footer View分配适配器内未被占用的viewType
+     */
+    private FixedView obtainFixedView(View view) {
+        int viewType = HEADER_FOOTER_VIEW_TYPE_FLAG - 1;
+        while (null != mFixedViews.get(viewType)) {
+            viewType--;
+        }
+        FixedView fixedView = new FixedView(view, viewType, mFixedViewSerial++);
+        mFixedViews.put(viewType, fixedView);
+        mSegmentsDirty = true;
+        return fixedView;
+    }
+
+    /**
+     * 释放Header/Footer View占用的viewType
      *
-     * @param index 目标下标
-     * @param view  添加对象view
-     * @return 是否成功
+     * @return 对应的View
+     */
+    private View releaseFixedView(FixedView fixedView) {
+        mFixedViews.remove(fixedView.viewType);
+        mSegmentsDirty = true;
+        return fixedView.view;
+    }
+
+    /**
+     * 查找View在Header/Footer中的下标
+     */
+    private static int indexOfFixedView(List<FixedView> fixedViews, View view) {
+        for (int i = 0, size = fixedViews.size(); i < size; i++) {
+            if (fixedViews.get(i).view == view) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 通知条目插入，与空缺view之间切换时整体刷新
+     *
+     * @param vacancyBefore 变化前是否展示空缺view
+     */
+    private void notifyStructureInserted(boolean vacancyBefore, int positionStart, int count) {
+        if (vacancyBefore || isVacancyVisibility()) {
+            notifyDataSetChanged();
+        } else if (count > 0) {
+            notifyItemRangeInserted(positionStart, count);
+        }
+    }
+
+    /**
+     * 通知条目移除，与空缺view之间切换时整体刷新
+     *
+     * @param vacancyBefore 变化前是否展示空缺view
+     */
+    private void notifyStructureRemoved(boolean vacancyBefore, int positionStart, int count) {
+        if (vacancyBefore || isVacancyVisibility()) {
+            notifyDataSetChanged();
+        } else if (count > 0) {
+            notifyItemRangeRemoved(positionStart, count);
+        }
+    }
+
+    /**
+     * 设置空缺view
+     */
+    public void setVacancyView(View vacancyView) {
+        this.mVacancyHintView = vacancyView;
+        mSegmentsDirty = true;
+    }
+
+    /**
+     * 设置数据分组
+     * <p>
+     * 分组按顺序覆盖数据列表，每组可拥有独立的头部与尾部，位于全局Header之后、Footer之前;
+     * 分组之外剩余的数据排列在最后一个分组之后。数据增删移动后，所在分组的数据数量随之调整，
+     * 通过{@link #getSectionDataCount(int)}获取调整后的数量;整体提交新列表时分组数量保持不变.
+     *
+     * @param sections 数据分组，为空时清除分组
+     */
+    public void setSections(List<VastSection> sections) {
+        ArrayList<FixedSection> oldSections = mSections;
+        ArrayList<FixedSection> newSections = new ArrayList<>();
+        if (null != sections) {
+            for (VastSection section : sections) {
+                newSections.add(new FixedSection(obtainSectionFixedViews(oldSections, section.getHeaderViews(), true),
+                        section.getDataCount(), obtainSectionFixedViews(oldSections, section.getFooterViews(), false)));
+            }
+        }
+        //释放不再使用的分组头尾
+        for (FixedSection oldSection : oldSections) {
+            releaseUnusedFixedViews(oldSection.headers, newSections, true);
+            releaseUnusedFixedViews(oldSection.footers, newSections, false);
+        }
+        mSections = newSections;
+        mSegmentsDirty = true;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 获取数据分组数量
+     */
+    public int getSectionCount() {
+        return mSections.size();
+    }
+
+    /**
+     * 获取分组的数据数量，数据增删移动后随之调整
+     *
+     * @param index 分组下标
+     */
+    public int getSectionDataCount(int index) {
+        return mSections.get(index).dataCount;
+    }
+
+    /**
+     * 为分组头尾分配viewType，已存在的View沿用原有viewType
+     */
+    private ArrayList<FixedView> obtainSectionFixedViews(List<FixedSection> oldSections, List<View> views, boolean header) {
+        ArrayList<FixedView> fixedViews = new ArrayList<>(views.size());
+        for (View view : views) {
+            FixedView fixedView = null;
+            for (FixedSection oldSection : oldSections) {
+                List<FixedView> candidates = header ? oldSection.headers : oldSection.footers;
+                int index = indexOfFixedView(candidates, view);
+                if (index >= 0) {
+                    fixedView = candidates.get(index);
+                    break;
+                }
+            }
+            fixedViews.add(null != fixedView ? fixedView : obtainFixedView(view));
+        }
+        return fixedViews;
+    }
+
+    private void releaseUnusedFixedViews(List<FixedView> fixedViews, List<FixedSection> sections, boolean header) {
+        for (FixedView fixedView : fixedViews) {
+            boolean used = false;
+            for (int i = 0, size = sections.size(); i < size && !used; i++) {
+                used = (header ? sections.get(i).headers : sections.get(i).footers).contains(fixedView);
+            }
+            if (!used) {
+                releaseFixedView(fixedView);
+            }
+        }
+    }
+
+    /**
+     * 提交新的数据列表
+     * <p>
+     * 在后台线程计算新旧列表差异，完成后在主线程以局部刷新的方式通知变化;
+     * 计算期间若再次提交，旧的计算结果将被丢弃。提交后的列表在差异计算完成前不应被修改，生效后增删改移操作直接修改该列表.
+     * 提交前排队中尚未应用的增删改移操作被丢弃，提交后的操作在新列表生效后应用到新列表上.
+     *
+     * @param newList 新的数据列表
+     */
+    public void submitList(final List<D> newList) {
+        if (null != mDataSource) {
+            throw new UnsupportedOperationException("data is provided by a VastDataSource");
+        }
+        final int generation = ++mMaxScheduledGeneration;
+        //新列表替代排队中的变更
+        mMutationQueue.clear();
+        final List<D> oldList = mData;
+        if (newList == oldList) {
+            //丢弃进行中的差异计算，当前列表即为最新
+            mLatchedGeneration = generation;
+            return;
+        }
+
+        //任意一方为空时无需计算差异
+        if (null == oldList || null == newList || oldList.isEmpty() || newList.isEmpty()) {
+            latchList(newList, null);
+            return;
+        }
+
+        final ItemComparator<D> comparator = mItemComparator;
+        Executor executor = null != mDiffExecutor ? mDiffExecutor : VastExecutors.background();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final DiffUtil.DiffResult result = DiffUtil.calculateDiff(new DiffUtil.Callback() {
+                    @Override
+                    public int getOldListSize() {
+                        return oldList.size();
+                    }
+
+                    @Override
+                    public int getNewListSize() {
+                        return newList.size();
+                    }
+
+                    @Override
+                    public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+                        return comparator.areItemsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+
+                    @Override
+                    public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+                        return comparator.areContentsTheSame(oldList.get(oldItemPosition), newList.get(newItemPosition));
+                    }
+                });
+                VastExecutors.postMain(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (mMaxScheduledGeneration == generation) {
+                            latchList(newList, result);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 替换数据并通知变化
+     *
+     * @param newList 新的数据列表
+     * @param result  差异结果，为空时按整体插入/移除处理
+     */
+    private void latchList(List<D> newList, DiffUtil.DiffResult result) {
+        int oldCount = getDataCount();
+        mData = newList;
+        mLatchedGeneration = mMaxScheduledGeneration;
+        int newCount = getDataCount();
+        if (isVacancyFor(oldCount) || isVacancyFor(newCount)) {
+            //空缺view与数据之间切换，条目结构整体变化
+            notifyDataSetChanged();
+        } else if (null != result) {
+            mDataUpdateCallback.dataCount = oldCount;
+            result.dispatchUpdatesTo(mDataUpdateCallback);
+        } else {
+            dispatchDataReplaced(oldCount, false);
+            dispatchDataReplaced(newCount, true);
+        }
+        //应用差异计算期间排队的操作
+        if (mMutationQueue.hasPending()) {
+            mMutationQueue.flush();
+        }
+    }
+
+    /**
+     * 设置列表差异比较器，默认使用equals比较
+     */
+    public void setItemComparator(ItemComparator<D> itemComparator) {
+        this.mItemComparator = null != itemComparator ? itemComparator : new EqualsItemComparator<D>();
+    }
+
+    /**
+     * 通知数据条目变化，下标为数据下标
+     */
+    public final void notifyDataItemChanged(int dataPosition) {
+        notifyItemChanged(toAdapterPosition(dataPosition));
+    }
+
+    /**
+     * 携带payload通知数据条目变化，下标为数据下标
+     *
+     * @param payload 局部刷新标识，回调至{@link #bindHolder(VastHolder, Object, int, List)}
+     */
+    public final void notifyDataItemChanged(int dataPosition, Object payload) {
+        notifyItemChanged(toAdapterPosition(dataPosition), payload);
+    }
+
+    /**
+     * 通知数据条目区间变化，下标为数据下标
+     */
+    public final void notifyDataItemRangeChanged(int dataPositionStart, int itemCount) {
+        dispatchDataChanged(getDataCount(), dataPositionStart, itemCount, null);
+    }
+
+    /**
+     * 携带payload通知数据条目区间变化，下标为数据下标
+     *
+     * @param payload 局部刷新标识，回调至{@link #bindHolder(VastHolder, Object, int, List)}
+     */
+    public final void notifyDataItemRangeChanged(int dataPositionStart, int itemCount, Object payload) {
+        dispatchDataChanged(getDataCount(), dataPositionStart, itemCount, payload);
+    }
+
+    /**
+     * 通知数据条目区间插入，下标为数据下标，需在数据插入之后调用
+     */
+    public final void notifyDataItemRangeInserted(int dataPositionStart, int itemCount) {
+        dispatchDataInserted(getDataCount() - itemCount, dataPositionStart, itemCount);
+    }
+
+    /**
+     * 通知数据条目区间移除，下标为数据下标，需在数据移除之后调用
+     */
+    public final void notifyDataItemRangeRemoved(int dataPositionStart, int itemCount) {
+        dispatchDataRemoved(getDataCount() + itemCount, dataPositionStart, itemCount);
+    }
+
+    /**
+     * 通知数据条目移动，下标为数据下标，需在数据移动之后调用
+     */
+    public final void notifyDataItemMoved(int fromDataPosition, int toDataPosition) {
+        dispatchDataMoved(getDataCount(), fromDataPosition, toDataPosition);
+    }
+
+    /**
+     * 在数据末尾追加条目
+     * <p>
+     * 增删改移方法可在任意线程调用，操作在主线程的下一帧依次应用到数据列表，同一帧内的连续操作合并为区间通知，
+     * 下标均为数据下标，无需加上头部数量;末尾位置与下标越界按应用时的列表确定，越界时在主线程抛出IndexOutOfBoundsException;
+     * 应用之前{@link #getDataCount()}等仍返回原数据，需要立即生效时在主线程调用{@link #commitDataChanges()}.
+     * 操作直接修改构造或{@link #submitList(List)}时传入的列表，不支持修改的列表在应用时抛出UnsupportedOperationException;
+     * 有进行中的差异计算时，操作在新列表生效后应用.
+     */
+    public void addData(D item) {
+        obtainMutationQueue().append(item);
+    }
+
+    /**
+     * 在数据末尾追加多个条目
+     */
+    public void addData(Collection<? extends D> items) {
+        obtainMutationQueue().appendAll(items);
+    }
+
+    /**
+     * 在指定数据下标插入条目
+     */
+    public void insertData(int position, D item) {
+        obtainMutationQueue().insert(position, item);
+    }
+
+    /**
+     * 在指定数据下标插入多个条目
+     */
+    public void insertData(int position, Collection<? extends D> items) {
+        obtainMutationQueue().insertAll(position, items);
+    }
+
+    /**
+     * 移除指定数据下标的条目
+     */
+    public void removeData(int position) {
+        obtainMutationQueue().remove(position, 1);
+    }
+
+    /**
+     * 移除从指定数据下标开始的多个条目
+     */
+    public void removeData(int position, int count) {
+        obtainMutationQueue().remove(position, count);
+    }
+
+    /**
+     * 替换指定数据下标的条目
+     */
+    public void setData(int position, D item) {
+        obtainMutationQueue().set(position, item, null);
+    }
+
+    /**
+     * 替换指定数据下标的条目，以payload局部刷新
+     *
+     * @param payload 局部刷新标识，回调至{@link #bindHolder(VastHolder, Object, int, List)}
+     */
+    public void setData(int position, D item, Object payload) {
+        obtainMutationQueue().set(position, item, payload);
+    }
+
+    /**
+     * 移动条目
+     */
+    public void moveData(int fromPosition, int toPosition) {
+        obtainMutationQueue().move(fromPosition, toPosition);
+    }
+
+    /**
+     * 立即应用排队中的增删改移操作，需在主线程调用，有进行中的差异计算时仍在新列表生效后应用
+     */
+    @MainThread
+    public void commitDataChanges() {
+        if (null != mMutationQueue) {
+            mMutationQueue.flush();
+        }
+    }
+
+    /**
+     * 保存前若干条数据与当前滚动位置到快照，在后台线程写入
+     * <p>
+     * 通常在页面进入后台或真实数据刷新后调用，已保存的条目在写入完成前不应被修改.
+     */
+    @MainThread
+    public void saveSnapshot(VastSnapshot<D> snapshot) {
+        snapshot.save(this, mHostRv);
+    }
+
+    /**
+     * 从快照恢复数据与滚动位置，需在首次布局之前调用
+     * <p>
+     * 只在当前没有数据时生效;之后提交真实数据时{@link #submitList(List)}以差异方式局部刷新，不会整体重新绑定.
+     * 解码得到的是新的对象，数据未重写equals时需通过{@link #setItemComparator(ItemComparator)}按key比较.
+     *
+     * @return 是否已从快照恢复
+     */
+    @MainThread
+    public boolean restoreSnapshot(VastSnapshot<D> snapshot) {
+        checkDataMutable();
+        if (getDataCount() > 0 || !snapshot.restore(this)) {
+            return false;
+        }
+        mRestoringSnapshot = snapshot;
+        applyRestoringAnchor();
+        return true;
+    }
+
+    /**
+     * 应用快照中的滚动位置，未关联RecyclerView时等待关联后应用
+     */
+    private void applyRestoringAnchor() {
+        if (null != mRestoringSnapshot && mRestoringSnapshot.applyAnchor(this, mHostRv)) {
+            mRestoringSnapshot = null;
+        }
+    }
+
+    /**
+     * 开启条目View状态保存，需同时设置{@link #setKeyExtractor(KeyExtractor)}
+     * <p>
+     * Holder回收时以数据key保存View状态，再次绑定同一条数据时在{@link #bindHolder(VastHolder, Object, int)}之后恢复，
+     * 默认只保存{@link #setViewStateIds(int...)}指定的View，可重写{@link #onSaveViewState(VastHolder, SparseArray)}自定义.
+     *
+     * @param maxItems 最多保存的条目数，超出时淘汰最早保存的状态，不大于0时关闭并清空
+     */
+    public void setViewStateCapacity(int maxItems) {
+        if (maxItems <= 0) {
+            mViewStateStore = null;
+        } else if (null == mViewStateStore) {
+            mViewStateStore = new VastViewStateStore(maxItems);
+        } else {
+            mViewStateStore.setCapacity(maxItems);
+        }
+    }
+
+    /**
+     * 设置默认保存状态的View，只保存这些View及其子View的状态
+     * <p>
+     * 状态在绑定之后恢复，会覆盖绑定时设置的内容，不应包含由数据决定显示内容的View(如CheckBox、EditText).
+     *
+     * @param viewIds 条目View中的view_id，不设置时默认不保存任何状态
+     */
+    public void setViewStateIds(@IdRes int... viewIds) {
+        this.mViewStateIds = null == viewIds ? new int[0] : viewIds.clone();
+    }
+
+    /**
+     * 清空已保存的条目View状态
+     */
+    public void clearViewState() {
+        if (null != mViewStateStore) {
+            mViewStateStore.clear();
+        }
+    }
+
+    /**
+     * 获取可序列化的条目View状态，在onSaveInstanceState中保存，包含当前显示中的条目
+     *
+     * @return 未开启时返回null
+     */
+    @MainThread
+    public Parcelable saveViewState() {
+        if (null == mViewStateStore) {
+            return null;
+        }
+        if (null != mHostRv) {
+            for (int i = 0, count = mHostRv.getChildCount(); i < count; i++) {
+                RecyclerView.ViewHolder holder = mHostRv.getChildViewHolder(mHostRv.getChildAt(i));
+                if (holder instanceof VastHolder && ((VastHolder) holder).ownerAdapter == this) {
+                    saveItemViewState((VastHolder) holder);
+                }
+            }
+        }
+        return mViewStateStore.toSavedState();
+    }
+
+    /**
+     * 恢复{@link #saveViewState()}得到的状态，需在{@link #setViewStateCapacity(int)}之后、首次布局之前调用
+     */
+    @MainThread
+    public void restoreViewState(Parcelable state) {
+        if (null != mViewStateStore && state instanceof VastViewStateStore.SavedState) {
+            mViewStateStore.restore((VastViewStateStore.SavedState) state);
+        }
+    }
+
+    /**
+     * 保存条目View状态，默认保存{@link #setViewStateIds(int...)}指定的View及其子View的状态
+     *
+     * @param container 以view_id为key的状态，也可放入自定义的Parcelable
+     */
+    protected void onSaveViewState(VastHolder holder, SparseArray<Parcelable> container) {
+        for (int viewId : mViewStateIds) {
+            View view = holder.itemView.findViewById(viewId);
+            if (null != view) {
+                view.saveHierarchyState(container);
+            }
+        }
+    }
+
+    /**
+     * 恢复条目View状态，在{@link #bindHolder(VastHolder, Object, int)}之后调用，默认只恢复指定的View
+     */
+    protected void onRestoreViewState(VastHolder holder, SparseArray<Parcelable> container) {
+        for (int viewId : mViewStateIds) {
+            View view = holder.itemView.findViewById(viewId);
+            if (null != view) {
+                view.restoreHierarchyState(container);
+            }
+        }
+    }
+
+    /**
+     * 以Holder当前绑定数据的key保存View状态
+     */
+    private void saveItemViewState(VastHolder holder) {
+        if (holder.stateKey == RecyclerView.NO_ID) {
+            return;
+        }
+        SparseArray<Parcelable> container = new SparseArray<>();
+        onSaveViewState(holder, container);
+        if (container.size() > 0) {
+            mViewStateStore.put(holder.stateKey, container);
+        }
+    }
+
+    private void restoreItemViewState(VastHolder holder, long key) {
+        holder.stateKey = key;
+        SparseArray<Parcelable> container = mViewStateStore.remove(key);
+        if (null != container) {
+            onRestoreViewState(holder, container);
+        }
+    }
+
+    /**
+     * 检查是否支持直接修改数据，子类数据不由列表提供时抛出异常
      */
-    public boolean addHeaderView(int index, View view) {
-        if (index < 0 || view == null) {
-            return false;
+    void checkDataMutable() {
+        if (null != mDataSource) {
+            throw new UnsupportedOperationException("data is provided by a VastDataSource");
         }
-        mHeaderViews.add(index, view);
-        return true;
+    }
+
+    private VastMutationQueue<D> obtainMutationQueue() {
+        checkDataMutable();
+        return mMutationQueue;
     }
 
     /**
-     * 获取头部view数量
+     * 追加布局，需在开启布局预加载之前调用
+     *
+     * @return 新布局的下标
      */
-    public final int getHeaderCount() {
-        return mHeaderViews.size();
+    final int addLayoutId(@LayoutRes int layoutId) {
+        if (null != mPreInflater) {
+            throw new IllegalStateException("layouts must be added before setPreInflateCount");
+        }
+        int layoutIndex = null == layoutIds ? 0 : layoutIds.length;
+        layoutIds = null == layoutIds ? new int[1] : Arrays.copyOf(layoutIds, layoutIndex + 1);
+        layoutIds[layoutIndex] = layoutId;
+        if (null != mHolderFactories) {
+            mHolderFactories = Arrays.copyOf(mHolderFactories, layoutIndex + 1);
+        }
+        mLayoutViewTypes = null;
+        return layoutIndex;
     }
 
     /**
-     * 移除头部view
+     * 设置布局下标对应的Holder创建工厂
+     * <p>
+     * 可传入注解处理器生成的Holder的FACTORY常量，绑定数据时将holder强转为对应类型后直接访问View字段.
+     * 以布局资源id作为viewType时，设置了工厂的布局按工厂与布局id分配viewType，只与使用同一工厂的适配器共用Holder.
      *
-     * @param index 下标
-     * @return 移除的HeaderView
+     * @param layoutIndex 布局下标
+     * @param factory     Holder创建工厂，为空时使用{@link VastHolder}
      */
-    public View removeHeaderView(int index) {
-        if (index >= 0 && mHeaderViews.size() > index) {
-            return mHeaderViews.remove(index);
+    public void setHolderFactory(int layoutIndex, VastHolderFactory factory) {
+        if (null == mHolderFactories) {
+            mHolderFactories = new VastHolderFactory[layoutIds.length];
         }
-        return null;
+        mHolderFactories[layoutIndex] = factory;
+        mLayoutViewTypes = null;
     }
 
     /**
-     * 移除头部view
+     * 设置布局预加载数量
+     * <p>
+     * 主线程空闲时在后台线程预先inflate指定数量的View，创建Holder时优先取用.
      *
-     * @param view 指定view
-     * @return 返回移除的对应下标
+     * @param layoutIndex 布局下标
+     * @param count       预加载数量，0为关闭
      */
-    public int removeHeaderView(View view) {
-        int index = -1;
-        if (null != view) {
-            index = mHeaderViews.indexOf(view);
-            if (null == removeHeaderView(index)) {
-                index = -1;
+    public void setPreInflateCount(int layoutIndex, int count) {
+        if (null == mPreInflater) {
+            mPreInflater = new VastPreInflater(layoutIds);
+            if (null != mHostRv) {
+                mPreInflater.start(mHostRv);
             }
         }
-        return index;
+        mPreInflater.setCount(layoutIndex, count);
     }
 
     /**
-     * 移除全部头部view
-     *
-     * @return 返回移除的总个数
+     * 设置数据条目是否以布局资源id作为viewType，默认以布局下标作为viewType
+     * <p>
+     * 开启后使用相同布局的适配器之间可共用回收池，需在{@link RecyclerView#setAdapter(RecyclerView.Adapter)}之前调用.
      */
-    public int removeAllHeaderView() {
-        int count = getHeaderCount();
-        mHeaderViews.clear();
-        return count;
+    public void setLayoutIdViewTypeEnabled(boolean enabled) {
+        this.mLayoutIdViewType = enabled;
     }
 
     /**
-     * 添加尾部View
-     *
-     * @param view 添加对象view
-     * @return 对应的下标
+     * 设置耗时统计，为空时关闭统计且不产生任何计时开销
+     * <p>
+     * 统计中数据条目以布局下标区分类型，多个适配器共用同一统计时需使用一致的布局顺序.
      */
-    public int addFooterView(View view) {
-        int index = mFooterViews.size();
-        if (!addFooterView(index, view)) {
-            index = -1;
-        }
-        return index;
+    public void setMetrics(VastMetrics metrics) {
+        this.mMetrics = metrics;
     }
 
     /**
-     * 添加/插入尾部view
-     *
-     * @param index 目标下标
-     * @param view  添加对象view
-     * @retrun 是否成功
+     * 获取耗时统计
      */
-    public boolean addFooterView(int index, View view) {
-        if (index < 0 || view == null) {
-            return false;
-        }
-        mFooterViews.add(index, view);
-        return true;
+    public VastMetrics getMetrics() {
+        return mMetrics;
     }
 
     /**
-     * 获取尾部view的个数
+     * 设置数据条目的SpanSizeLookup，以数据下标回调，Header/Footer等条目始终占满整行
+     * <p>
+     * 未设置时使用GridLayoutManager原有的SpanSizeLookup，被{@link VastConcatAdapter}拼接时需通过该方法设置.
      */
-    public final int getFooterCount() {
-        return mFooterViews.size();
+    public void setDataSpanSizeLookup(GridLayoutManager.SpanSizeLookup lookup) {
+        this.mDataSpanSizeLookup = lookup;
+        invalidateSpanCache();
     }
 
     /**
-     * 移除尾部view
-     *
-     * @param index 下标
-     * @return 移除的FooterView
+     * 清空GridLayoutManager的span下标缓存
+     * <p>
+     * 增删数据与Header/Footer时自动处理，仅在数据条目的span或{@link #isFullSpanData(int)}结果变化而未通知刷新时需要调用.
      */
-    public View removeFooterView(int index) {
-        if (index >= 0 && mFooterViews.size() > index) {
-            return mFooterViews.remove(index);
+    public void invalidateSpanCache() {
+        if (null != mConcatAdapter) {
+            mConcatAdapter.invalidateSpanCache();
+        } else if (null != mSpanSizeLookup) {
+            mSpanSizeLookup.invalidateCache();
         }
-        return null;
     }
 
     /**
-     * 移除尾部view
-     *
-     * @param view 指定view
-     * @return 返回移除的对应下标
+     * 设置共用回收池，同时开启以布局资源id作为viewType
+     * <p>
+     * 共用回收池的适配器之间会复用彼此创建的Holder，复用前会重新设置事件监听并回调{@link #onCreateHolder(VastHolder)}.
      */
-    public int removeFooterView(View view) {
-        int index = -1;
-        if (null != view) {
-            index = mFooterViews.indexOf(view);
-            if (null == removeFooterView(index)) {
-                index = -1;
+    public void setSharedViewPool(VastRecycledViewPool pool) {
+        this.mSharedViewPool = pool;
+        if (null != pool) {
+            mLayoutIdViewType = true;
+            if (null != mHostRv) {
+                mHostRv.setRecycledViewPool(pool);
             }
         }
-        return index;
     }
 
     /**
-     * 移除全部尾部view
+     * 获取布局预加载池，可用于查看各布局的命中情况
      *
-     * @return 返回移除的总个数
+     * @return 未设置预加载时返回null
      */
-    public int removeAllFooterView() {
-        int count = getFooterCount();
-        mFooterViews.clear();
-        return count;
+    public VastPreInflater getPreInflater() {
+        return mPreInflater;
     }
 
     /**
-     * 设置空缺view
+     * 设置数据key提取，不为空时开启stableIds，为空时关闭
+     * <p>
+     * 需在{@link RecyclerView#setAdapter(RecyclerView.Adapter)}之前调用.
      */
-    public void setVacancyView(View vacancyView) {
-        this.mVacancyHintView = vacancyView;
+    public void setKeyExtractor(KeyExtractor<D> keyExtractor) {
+        setHasStableIds(null != keyExtractor);
+        this.mKeyExtractor = keyExtractor;
+    }
+
+    /**
+     * 设置差异计算线程，默认使用共用后台线程池
+     */
+    public void setDiffExecutor(Executor executor) {
+        this.mDiffExecutor = executor;
     }
 
     /**
@@ -430,6 +2136,7 @@ public abstract class VastAdapter<D> extends RecyclerView.Adapter {
      */
     public void setOnItemLongClickListener(OnItemLongClickListener itemLongClickListener) {
         this.mOnItemLongClickListener = itemLongClickListener;
+        onClickListenersChanged();
     }
 
     /**
@@ -437,6 +2144,34 @@ public abstract class VastAdapter<D> extends RecyclerView.Adapter {
      */
     public void setOnItemClickListener(OnItemClickListener itemClickListener) {
         this.mOnItemClickListener = itemClickListener;
+        onClickListenersChanged();
+    }
+
+    /**
+     * 设置携带数据的点击监听，可在任意时机设置
+     */
+    public void setOnDataClickListener(OnDataClickListener<D> listener) {
+        this.mOnDataClickListener = listener;
+        onClickListenersChanged();
+    }
+
+    /**
+     * 设置携带数据的长按监听，可在任意时机设置
+     */
+    public void setOnDataLongClickListener(OnDataLongClickListener<D> listener) {
+        this.mOnDataLongClickListener = listener;
+        onClickListenersChanged();
+    }
+
+    /**
+     * 设置条目内子View的点击监听
+     *
+     * @param childIds 需要分发点击事件的子View id，通过{@link View#getId()}区分被点击的子View
+     */
+    public void setOnItemChildClickListener(OnItemChildClickListener<D> listener, @IdRes int... childIds) {
+        this.mOnItemChildClickListener = listener;
+        this.mChildClickIds = null == childIds || childIds.length == 0 ? null : childIds.clone();
+        onClickListenersChanged();
     }
 
     /**
@@ -453,6 +2188,48 @@ public abstract class VastAdapter<D> extends RecyclerView.Adapter {
         this.mOnPreloadListener = onPreloadListener;
     }
 
+    /**
+     * 设置预加载状态监听
+     */
+    public void setOnPreloadStateChangeListener(OnPreloadStateChangeListener listener) {
+        this.mOnPreloadStateChangeListener = listener;
+    }
+
+    /**
+     * 设置加载更多Footer
+     * <p>
+     * 作为Footer添加到末尾，状态变化时通过监听直接更新该View，不会触发刷新;加载失败时点击该View重试.
+     * 再次设置时替换之前的加载更多Footer，监听与{@link #setOnPreloadStateChangeListener(OnPreloadStateChangeListener)}互不影响.
+     *
+     * @param footerView 加载更多View，为空时移除之前设置的Footer
+     * @param listener   预加载状态监听，用于切换加载中/失败/没有更多的展示
+     */
+    public void setPreloadFooterView(View footerView, OnPreloadStateChangeListener listener) {
+        if (null != mPreloadFooterView) {
+            mPreloadFooterView.setOnClickListener(null);
+            removeFooterView(mPreloadFooterView);
+            mPreloadFooterView = null;
+            mPreloadFooterListener = null;
+        }
+        if (null == footerView) {
+            return;
+        }
+        footerView.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                if (mPreloadState == PRELOAD_STATE_ERROR) {
+                    retryPreload();
+                }
+            }
+        });
+        this.mPreloadFooterView = footerView;
+        this.mPreloadFooterListener = listener;
+        addFooterView(footerView);
+        if (null != listener) {
+            listener.onPreloadStateChanged(mPreloadState);
+        }
+    }
+
     /**
      * item长按监听
      */
@@ -467,6 +2244,34 @@ public abstract class VastAdapter<D> extends RecyclerView.Adapter {
         void onClick(int position);
     }
 
+    /**
+     * 携带数据的item点击监听
+     */
+    public interface OnDataClickListener<D> {
+        void onClick(View view, D data, int position);
+    }
+
+    /**
+     * 携带数据的item长按监听
+     */
+    public interface OnDataLongClickListener<D> {
+        boolean onLongClick(View view, D data, int position);
+    }
+
+    /**
+     * item内子View点击监听
+     */
+    public interface OnItemChildClickListener<D> {
+        void onChildClick(View view, D data, int position);
+    }
+
+    /**
+     * 数据条目是否占满整行
+     */
+    public interface FullSpanLookup<D> {
+        boolean isFullSpan(D data, int position);
+    }
+
     /**
      * 预加载监听
      */
@@ -474,6 +2279,49 @@ public abstract class VastAdapter<D> extends RecyclerView.Adapter {
         void onPreload();
     }
 
+    /**
+     * 预加载状态监听
+     */
+    public interface OnPreloadStateChangeListener {
+
+        /**
+         * @param state {@link #PRELOAD_STATE_IDLE}、{@link #PRELOAD_STATE_LOADING}、
+         *              {@link #PRELOAD_STATE_ERROR}、{@link #PRELOAD_STATE_EXHAUSTED}
+         */
+        void onPreloadStateChanged(int state);
+    }
+
+    /**
+     * 列表差异比较器
+     */
+    public interface ItemComparator<D> {
+
+        /**
+         * 是否为同一条目
+         */
+        boolean areItemsTheSame(D oldItem, D newItem);
+
+        /**
+         * 同一条目的内容是否相同
+         */
+        boolean areContentsTheSame(D oldItem, D newItem);
+    }
+
+    /**
+     * 数据key提取
+     */
+    public interface KeyExtractor<D> {
+
+        /**
+         * 获取数据的唯一key，同一条数据在刷新前后应返回相同的key
+         * <p>
+         * 只对非空数据调用，分页或数据源未就绪的占位数据使用保留区间内的itemId，且不保存与恢复View状态.
+         *
+         * @param data 不为null
+         */
+        long getKey(@NonNull D data);
+    }
+
     /**
      * Holder创建完成
      */
@@ -486,6 +2334,17 @@ public abstract class VastAdapter<D> extends RecyclerView.Adapter {
      */
     public abstract void bindHolder(VastHolder holder, D data, int position);
 
+    /**
+     * 局部绑定布局数据
+     * <p>
+     * 通过{@link #notifyDataItemChanged(int, Object)}等方法携带payload刷新时回调，默认整体重新绑定.
+     *
+     * @param payloads 本次刷新携带的payload，不为空
+     */
+    public void bindHolder(VastHolder holder, D data, int position, List<Object> payloads) {
+        bindHolder(holder, data, position);
+    }
+
     /**
      * 多布局需求时，根据下标得到对应的布局资源id
      *
@@ -499,7 +2358,225 @@ public abstract class VastAdapter<D> extends RecyclerView.Adapter {
      * 获取数据总量
      */
     public int getDataCount() {
-        return mData.size();
+        if (null != mDataSource) {
+            return mDataSource.getCount();
+        }
+        return null == mData ? 0 : mData.size();
+    }
+
+    /**
+     * adapter下标转换为数据下标
+     *
+     * @return Header/Footer等非数据条目返回-1
+     */
+    public final int getDataPosition(int adapterPosition) {
+        ensureSegments();
+        return mSegments.dataPositionAt(adapterPosition);
+    }
+
+    /**
+     * 数据条目是否占满整行，在GridLayoutManager与StaggeredGridLayoutManager下生效
+     * <p>
+     * 默认由{@link #setFullSpanLookup(FullSpanLookup)}决定，也可直接重写.
+     *
+     * @param position 数据下标
+     */
+    public boolean isFullSpanData(int position) {
+        return null != mFullSpanLookup && mFullSpanLookup.isFullSpan(getData(position), position);
+    }
+
+    /**
+     * 设置数据条目是否占满整行，无需在绑定时修改LayoutParams
+     */
+    public void setFullSpanLookup(FullSpanLookup<D> lookup) {
+        this.mFullSpanLookup = lookup;
+        invalidateSpanCache();
+    }
+
+    /**
+     * 获取数据下标对应的数据
+     */
+    public D getData(int position) {
+        if (null != mCachedSource) {
+            return mCachedSource.peek(position);
+        }
+        return null != mDataSource ? mDataSource.get(position) : mData.get(position);
+    }
+
+    /**
+     * 绑定时获取数据，按需加载的数据源在此处开始加载，{@link #getData(int)}不产生副作用
+     */
+    D getDataForBind(int position) {
+        return null != mDataSource ? mDataSource.get(position) : getData(position);
+    }
+
+    /**
+     * Header/Footer View及其固定的viewType
+     */
+    private static class FixedView {
+
+        final View view;
+
+        final int viewType;
+
+        /**
+         * 分配序号，用于生成itemId
+         */
+        final long serial;
+
+        FixedView(View view, int viewType, long serial) {
+            this.view = view;
+            this.viewType = viewType;
+            this.serial = serial;
+        }
+    }
+
+    /**
+     * 数据分组及其固定viewType的头尾
+     */
+    private static class FixedSection {
+
+        final List<FixedView> headers;
+
+        /**
+         * 分组的数据数量，数据增删移动后随之调整
+         */
+        int dataCount;
+
+        final List<FixedView> footers;
+
+        FixedSection(List<FixedView> headers, int dataCount, List<FixedView> footers) {
+            this.headers = headers;
+            this.dataCount = dataCount;
+            this.footers = footers;
+        }
+    }
+
+    /**
+     * 默认的差异比较器，条目与内容均以equals判断
+     */
+    private static class EqualsItemComparator<D> implements ItemComparator<D> {
+
+        @Override
+        public boolean areItemsTheSame(D oldItem, D newItem) {
+            return oldItem == newItem || (null != oldItem && oldItem.equals(newItem));
+        }
+
+        @Override
+        public boolean areContentsTheSame(D oldItem, D newItem) {
+            return areItemsTheSame(oldItem, newItem);
+        }
+    }
+
+    /**
+     * 共用的点击分发，通过被点击的View查找所在Holder及数据
+     */
+    private class ClickDispatcher implements View.OnClickListener, View.OnLongClickListener {
+
+        @Override
+        public void onClick(View v) {
+            VastHolder holder = findHolder(v);
+            int position = null != holder ? getAdapterPosition(holder) : RecyclerView.NO_POSITION;
+            if (position < 0) {
+                return;
+            }
+            if (v != holder.itemView) {
+                if (null != mOnItemChildClickListener) {
+                    mOnItemChildClickListener.onChildClick(v, getData(position), position);
+                }
+                return;
+            }
+            if (null != mOnItemClickListener) {
+                mOnItemClickListener.onClick(position);
+            }
+            if (null != mOnDataClickListener) {
+                mOnDataClickListener.onClick(v, getData(position), position);
+            }
+        }
+
+        @Override
+        public boolean onLongClick(View v) {
+            VastHolder holder = findHolder(v);
+            int position = null != holder ? getAdapterPosition(holder) : RecyclerView.NO_POSITION;
+            if (position < 0) {
+                return false;
+            }
+            boolean handled = false;
+            if (null != mOnItemLongClickListener) {
+                handled = mOnItemLongClickListener.onLongClick(position);
+            }
+            if (null != mOnDataLongClickListener) {
+                handled |= mOnDataLongClickListener.onLongClick(v, getData(position), position);
+            }
+            return handled;
+        }
+
+        private VastHolder findHolder(View v) {
+            if (null == mHostRv) {
+                return null;
+            }
+            RecyclerView.ViewHolder holder = mHostRv.findContainingViewHolder(v);
+            return holder instanceof VastHolder && ((VastHolder) holder).ownerAdapter == VastAdapter.this
+                    ? (VastHolder) holder : null;
+        }
+    }
+
+    /**
+     * 变更队列的应用目标
+     * <p>
+     * 直接修改当前的数据列表，合并后的通知按应用顺序分发，
+     * 分发时数据列表可能已应用了之后的操作，数据总量按已分发的变化推算.
+     */
+    private class MutationTarget extends DataUpdateCallback implements VastMutationQueue.Target<D> {
+
+        @Override
+        public List<D> getMutableData() {
+            if (null == mData) {
+                mData = new ArrayList<>();
+            }
+            dataCount = mData.size();
+            return mData;
+        }
+
+        @Override
+        public boolean isReady() {
+            return mLatchedGeneration == mMaxScheduledGeneration;
+        }
+    }
+
+    /**
+     * 将数据下标的变化转换为adapter下标的变化
+     * <p>
+     * 差异结果按顺序分发，每次变化以之前变化完成后的数据总量构建分段表.
+     */
+    private class DataUpdateCallback implements ListUpdateCallback {
+
+        /**
+         * 已分发的变化对应的数据总量
+         */
+        int dataCount;
+
+        @Override
+        public void onInserted(int position, int count) {
+            dispatchDataInserted(dataCount, position, count);
+            dataCount += count;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            dispatchDataRemoved(dataCount, position, count);
+            dataCount -= count;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            dispatchDataMoved(dataCount, fromPosition, toPosition);
+        }
+
+        @Override
+        public void onChanged(int position, int count, Object payload) {
+            dispatchDataChanged(dataCount, position, count, payload);
+        }
     }
 
 }
@@ -0,0 +1,35 @@
+package com.zhukai.adapter;
+
+import java.util.List;
+
+/**
+ * 单一数据类型的绑定器
+ * <p>
+ * 通过{@link VastMultiTypeAdapter#register(Class, int, VastBinder)}与布局一起注册，
+ * 每个绑定器只处理一种数据类型，绑定逻辑无需再按类型分支.
+ *
+ * @author zhukai
+ */
+public abstract class VastBinder<T> {
+
+    /**
+     * Holder创建完成
+     */
+    public void onCreateHolder(VastHolder holder) {
+
+    }
+
+    /**
+     * 绑定布局数据
+     */
+    public abstract void bind(VastHolder holder, T item, int position);
+
+    /**
+     * 局部绑定布局数据，默认整体重新绑定
+     *
+     * @param payloads 本次刷新携带的payload，不为空
+     */
+    public void bind(VastHolder holder, T item, int position, List<Object> payloads) {
+        bind(holder, item, position);
+    }
+}
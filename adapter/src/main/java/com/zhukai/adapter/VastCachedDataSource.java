@@ -0,0 +1,338 @@
+package com.zhukai.adapter;
+
+import android.util.Log;
+import android.util.SparseBooleanArray;
+import android.util.SparseIntArray;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 带分页缓存的数据源
+ * <p>
+ * 数据按页从{@link VastCursorSource}在后台线程读取，并以LRU方式缓存固定页数;
+ * 未读取的位置返回null作为占位，读取完成后通知适配器局部刷新，内存中始终只保留最近访问的页.
+ * 适配器只在绑定时通过{@link #get(int)}访问并触发读取，其他位置通过{@link #peek(int)}读取;
+ * 仍有条目显示中的页不会被淘汰，缓存页数不足以容纳显示中的页时临时超出上限，避免读取与淘汰交替进行.
+ * 读取失败的页在仍有条目显示时按退避间隔重试.
+ * 除读取外的方法均需在主线程调用.
+ *
+ * @author zhukai
+ */
+public class VastCachedDataSource<D> implements VastDataSource<D> {
+
+    private static final String TAG = "VastCachedDataSource";
+
+    /**
+     * 最少缓存的页数，当前页及前后预读的页
+     */
+    private static final int MIN_CACHED_PAGES = 3;
+
+    /**
+     * 读取失败后首次重试的间隔，之后每次失败加倍
+     */
+    private static final long RETRY_DELAY_MS = 1000;
+
+    /**
+     * 读取失败后重试的最大间隔
+     */
+    private static final long MAX_RETRY_DELAY_MS = 30000;
+
+    /**
+     * 数据读取接口
+     */
+    private final VastCursorSource<D> mSource;
+
+    /**
+     * 每页数据量
+     */
+    private final int mPageSize;
+
+    /**
+     * 页缓存，按访问顺序排列，最早访问的在前
+     */
+    private final LinkedHashMap<Integer, List<D>> mPages = new LinkedHashMap<>();
+
+    /**
+     * 读取中的页
+     */
+    private final SparseBooleanArray mLoadingPages = new SparseBooleanArray();
+
+    /**
+     * 读取失败的页及连续失败次数
+     */
+    private final SparseIntArray mFailedPages = new SparseIntArray();
+
+    /**
+     * 各页显示中的条目数，大于0的页不会被淘汰
+     */
+    private final SparseIntArray mPinCounts = new SparseIntArray();
+
+    /**
+     * 最多缓存的页数
+     */
+    private int mMaxCachedPages;
+
+    /**
+     * 数据总量，未读取时为-1
+     */
+    private int mCount = -1;
+
+    /**
+     * 数据版本，刷新后丢弃进行中的读取结果
+     */
+    private int mGeneration;
+
+    /**
+     * 读取线程，为空时使用共用后台线程池
+     */
+    private Executor mExecutor;
+
+    /**
+     * 数据变化观察者
+     */
+    private Observer mObserver;
+
+    /**
+     * @param source        数据读取接口
+     * @param pageSize      每页数据量
+     * @param maxCachedPage 最多缓存的页数，至少为3页
+     */
+    public VastCachedDataSource(VastCursorSource<D> source, int pageSize, int maxCachedPage) {
+        if (pageSize <= 0 || maxCachedPage <= 0) {
+            throw new IllegalArgumentException("pageSize and maxCachedPage must be positive");
+        }
+        this.mSource = source;
+        this.mPageSize = pageSize;
+        this.mMaxCachedPages = Math.max(maxCachedPage, MIN_CACHED_PAGES);
+    }
+
+    /**
+     * 设置读取线程，默认使用共用后台线程池
+     */
+    public void setExecutor(Executor executor) {
+        this.mExecutor = executor;
+    }
+
+    /**
+     * 设置最多缓存的页数，至少为3页
+     */
+    public void setMaxCachedPages(int maxCachedPages) {
+        this.mMaxCachedPages = Math.max(maxCachedPages, MIN_CACHED_PAGES);
+        trimPages();
+    }
+
+    @Override
+    public void setObserver(Observer observer) {
+        this.mObserver = observer;
+        if (null != observer && mCount < 0) {
+            refresh();
+        }
+    }
+
+    @Override
+    public int getCount() {
+        return Math.max(mCount, 0);
+    }
+
+    /**
+     * 绑定时获取数据，所在页未读取时返回null并开始读取该页，临近页边界时提前读取相邻页
+     */
+    @Override
+    public D get(int index) {
+        int page = index / mPageSize;
+        if (index % mPageSize >= mPageSize / 2) {
+            loadPage(page + 1);
+        } else if (page > 0) {
+            loadPage(page - 1);
+        }
+        List<D> items = mPages.remove(page);
+        if (null == items) {
+            loadPage(page);
+            return null;
+        }
+        //移到最近访问的位置
+        mPages.put(page, items);
+        return itemAt(items, index);
+    }
+
+    /**
+     * 获取已缓存的数据，所在页未读取时返回null
+     * <p>
+     * 不改变访问顺序也不触发读取.
+     */
+    public D peek(int index) {
+        List<D> items = mPages.get(index / mPageSize);
+        return null == items ? null : itemAt(items, index);
+    }
+
+    /**
+     * 重新读取数据总量并清空缓存，进行中的读取结果将被丢弃
+     */
+    public void refresh() {
+        final int generation = ++mGeneration;
+        mLoadingPages.clear();
+        mFailedPages.clear();
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                final int count = readCount();
+                VastExecutors.postMain(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation == mGeneration) {
+                            reset(count);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 以已知的数据总量清空缓存并通知变化，进行中的读取结果将被丢弃
+     */
+    void reset(int count) {
+        mGeneration++;
+        mCount = count;
+        mPages.clear();
+        mLoadingPages.clear();
+        mFailedPages.clear();
+        if (null != mObserver) {
+            mObserver.onChanged();
+        }
+    }
+
+    /**
+     * 记录下标对应的条目开始显示，所在页不会被淘汰
+     */
+    void pin(int index) {
+        int page = index / mPageSize;
+        mPinCounts.put(page, mPinCounts.get(page) + 1);
+    }
+
+    /**
+     * 记录下标对应的条目不再显示
+     */
+    void unpin(int index) {
+        int page = index / mPageSize;
+        int count = mPinCounts.get(page) - 1;
+        if (count > 0) {
+            mPinCounts.put(page, count);
+        } else {
+            mPinCounts.delete(page);
+            trimPages();
+        }
+    }
+
+    private D itemAt(List<D> items, int index) {
+        int offset = index % mPageSize;
+        return offset < items.size() ? items.get(offset) : null;
+    }
+
+    /**
+     * 在后台线程读取指定页
+     */
+    private void loadPage(final int page) {
+        if (page < 0 || page * mPageSize >= getCount()
+                || mPages.containsKey(page) || mLoadingPages.get(page)) {
+            return;
+        }
+        mLoadingPages.put(page, true);
+        final int generation = mGeneration;
+        execute(new Runnable() {
+            @Override
+            public void run() {
+                final List<D> items = readPage(page);
+                VastExecutors.postMain(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) {
+                            return;
+                        }
+                        mLoadingPages.delete(page);
+                        if (null == items) {
+                            scheduleRetry(page);
+                            return;
+                        }
+                        mFailedPages.delete(page);
+                        mPages.put(page, items);
+                        trimPages();
+                        if (null != mObserver) {
+                            mObserver.onRangeLoaded(page * mPageSize, Math.min(mPageSize, getCount() - page * mPageSize));
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 按退避间隔重试读取失败的页，届时已没有条目显示的页不再重试，再次绑定时重新读取
+     */
+    private void scheduleRetry(final int page) {
+        int failures = mFailedPages.get(page) + 1;
+        mFailedPages.put(page, failures);
+        final int generation = mGeneration;
+        long delay = Math.min(RETRY_DELAY_MS << Math.min(failures - 1, 5), MAX_RETRY_DELAY_MS);
+        VastExecutors.postMainDelayed(new Runnable() {
+            @Override
+            public void run() {
+                if (generation == mGeneration && mPinCounts.get(page) > 0) {
+                    loadPage(page);
+                }
+            }
+        }, delay);
+    }
+
+    /**
+     * 超出缓存页数时按访问顺序淘汰没有条目显示的页
+     */
+    private void trimPages() {
+        int excess = mPages.size() - mMaxCachedPages;
+        Iterator<Integer> iterator = mPages.keySet().iterator();
+        while (excess > 0 && iterator.hasNext()) {
+            if (mPinCounts.get(iterator.next()) == 0) {
+                iterator.remove();
+                excess--;
+            }
+        }
+    }
+
+    /**
+     * 串行读取数据总量
+     */
+    private int readCount() {
+        synchronized (mSource) {
+            try {
+                return mSource.getCount();
+            } catch (RuntimeException e) {
+                Log.w(TAG, "failed to read count", e);
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 串行读取一页数据
+     *
+     * @return 读取失败时返回null，之后按退避间隔或再次绑定该页时重新读取
+     */
+    private List<D> readPage(int page) {
+        synchronized (mSource) {
+            try {
+                return mSource.read(page * mPageSize, mPageSize);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "failed to read page " + page, e);
+                return null;
+            }
+        }
+    }
+
+    private void execute(Runnable runnable) {
+        Executor executor = null != mExecutor ? mExecutor : VastExecutors.background();
+        executor.execute(runnable);
+    }
+}
@@ -0,0 +1,500 @@
+package com.zhukai.adapter;
+
+import android.util.SparseIntArray;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.GridLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 拼接适配器
+ * <p>
+ * 将多个{@link VastAdapter}按顺序拼接在同一个RecyclerView中，各适配器保留各自的Header/Footer、分组与预加载;
+ * 下标按各适配器条目数的前缀和二分查找路由，viewType重新分配为从0开始的独立编号，不与Header/Footer的viewType冲突;
+ * GridLayoutManager下按条目所属适配器组合span，数据条目的span通过{@link VastAdapter#setDataSpanSizeLookup(GridLayoutManager.SpanSizeLookup)}设置，
+ * 未设置时交由GridLayoutManager原有的SpanSizeLookup按数据下标计算，解除关联时还原.
+ * 被拼接的适配器需在添加之前设置{@link VastAdapter#setKeyExtractor(VastAdapter.KeyExtractor)}，
+ * 各适配器是否开启stableIds需一致，拼接适配器随第一个适配器开启stableIds;
+ * 各适配器的itemId(包括Header/Footer的保留id)分别映射为拼接后唯一的itemId，不同适配器之间不会冲突.
+ *
+ * @author zhukai
+ */
+public class VastConcatAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+
+    /**
+     * 被拼接的适配器
+     */
+    private final ArrayList<ChildAdapter> mChildren = new ArrayList<>();
+
+    /**
+     * 各适配器的起始下标，mStarts[size]为条目总数
+     */
+    private int[] mStarts = new int[1];
+
+    /**
+     * 起始下标是否需要重新计算
+     */
+    private boolean mStartsDirty = true;
+
+    /**
+     * 以布局资源id作为viewType的适配器之间是否共用viewType
+     */
+    private final boolean mShareViewTypes;
+
+    /**
+     * 共用的viewType，原viewType到拼接后viewType
+     */
+    private final SparseIntArray mSharedViewTypes = new SparseIntArray();
+
+    /**
+     * 拼接后viewType对应的适配器，下标即为拼接后的viewType
+     */
+    private final ArrayList<ChildAdapter> mViewTypeOwners = new ArrayList<>();
+
+    /**
+     * 拼接后viewType对应的原viewType
+     */
+    private final SparseIntArray mViewTypeLocals = new SparseIntArray();
+
+    /**
+     * 各适配器itemId到拼接后itemId的映射
+     */
+    private final VastStableIdMapper mStableIdMapper = new VastStableIdMapper();
+
+    /**
+     * 宿主RecyclerView
+     */
+    private RecyclerView mHostRv;
+
+    /**
+     * 已设置给GridLayoutManager的SpanSizeLookup
+     */
+    private ConcatSpanSizeLookup mSpanSizeLookup;
+
+    public VastConcatAdapter(VastAdapter<?>... adapters) {
+        this(false, adapters);
+    }
+
+    /**
+     * @param shareViewTypes 为true时，以布局资源id作为viewType的适配器之间共用相同布局的viewType，
+     *                       使RecyclerView回收池中的Holder可在这些适配器之间复用
+     */
+    public VastConcatAdapter(boolean shareViewTypes, VastAdapter<?>... adapters) {
+        this.mShareViewTypes = shareViewTypes;
+        for (VastAdapter<?> adapter : adapters) {
+            addAdapter(adapter);
+        }
+    }
+
+    /**
+     * 在末尾添加适配器
+     */
+    public void addAdapter(VastAdapter<?> adapter) {
+        addAdapter(mChildren.size(), adapter);
+    }
+
+    /**
+     * 在指定位置添加适配器
+     */
+    public void addAdapter(int index, VastAdapter<?> adapter) {
+        if (null != adapter.mConcatAdapter) {
+            throw new IllegalStateException("adapter is already added to a VastConcatAdapter");
+        }
+        if (mChildren.isEmpty() && !hasObservers()) {
+            setHasStableIds(adapter.hasStableIds());
+        } else if (adapter.hasStableIds() != hasStableIds()) {
+            throw new IllegalArgumentException("all adapters must agree on stable ids, set the same KeyExtractor state before adding");
+        }
+        ChildAdapter child = new ChildAdapter(adapter, mStableIdMapper.createScope());
+        adapter.mConcatAdapter = this;
+        adapter.registerAdapterDataObserver(child);
+        mChildren.add(index, child);
+        reindexChildren(index);
+        mStartsDirty = true;
+        if (null != mHostRv) {
+            adapter.onAttachedToRecyclerView(mHostRv);
+        }
+        int count = adapter.getItemCount();
+        if (count > 0) {
+            notifyItemRangeInserted(getStart(index), count);
+        }
+    }
+
+    /**
+     * 移除适配器
+     */
+    public void removeAdapter(VastAdapter<?> adapter) {
+        int index = indexOf(adapter);
+        if (index < 0) {
+            return;
+        }
+        int start = getStart(index);
+        int count = mStarts[index + 1] - start;
+        ChildAdapter child = mChildren.remove(index);
+        reindexChildren(index);
+        mStartsDirty = true;
+        adapter.unregisterAdapterDataObserver(child);
+        if (null != mHostRv) {
+            adapter.onDetachedFromRecyclerView(mHostRv);
+        }
+        adapter.mConcatAdapter = null;
+        releaseViewTypes(child);
+        if (count > 0) {
+            notifyItemRangeRemoved(start, count);
+        }
+    }
+
+    /**
+     * 获取被拼接的适配器
+     */
+    public List<VastAdapter<?>> getAdapters() {
+        List<VastAdapter<?>> adapters = new ArrayList<>(mChildren.size());
+        for (ChildAdapter child : mChildren) {
+            adapters.add(child.adapter);
+        }
+        return Collections.unmodifiableList(adapters);
+    }
+
+    /**
+     * 获取下标所在的适配器
+     */
+    public VastAdapter<?> getAdapterAt(int position) {
+        return mChildren.get(childIndexOf(position)).adapter;
+    }
+
+    /**
+     * 获取下标在所在适配器内的下标
+     */
+    public int getLocalPosition(int position) {
+        return position - mStarts[childIndexOf(position)];
+    }
+
+    /**
+     * 拼接后的下标转换为指定适配器内的下标，不在该适配器范围内时结果小于0或不小于其条目数
+     */
+    int toLocalPosition(VastAdapter<?> adapter, int position) {
+        return position - getStart(indexOf(adapter));
+    }
+
+    @Override
+    public int getItemCount() {
+        ensureStarts();
+        return mStarts[mChildren.size()];
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        int index = childIndexOf(position);
+        ChildAdapter child = mChildren.get(index);
+        int localViewType = child.adapter.getItemViewType(position - mStarts[index]);
+        int viewType = child.viewTypes.get(localViewType, -1);
+        if (viewType < 0) {
+            viewType = obtainViewType(child, localViewType);
+        }
+        return viewType;
+    }
+
+    @Override
+    public long getItemId(int position) {
+        if (!hasStableIds()) {
+            return RecyclerView.NO_ID;
+        }
+        int index = childIndexOf(position);
+        ChildAdapter child = mChildren.get(index);
+        return child.stableIds.toGlobalId(child.adapter.getItemId(position - mStarts[index]));
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ChildAdapter child = mViewTypeOwners.get(viewType);
+        RecyclerView.ViewHolder holder = child.adapter.onCreateViewHolder(parent, mViewTypeLocals.get(viewType));
+        VastHolder vastHolder = (VastHolder) holder;
+        if (null == vastHolder.ownerAdapter) {
+            //Header/Footer及空缺view的Holder同样记录所属适配器，用于分发回调
+            vastHolder.ownerAdapter = child.adapter;
+        }
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {
+        onBindViewHolder(holder, position, Collections.emptyList());
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        int index = childIndexOf(position);
+        mChildren.get(index).adapter.onBindViewHolder(holder, position - mStarts[index], payloads);
+    }
+
+    @Override
+    public void onViewRecycled(@NonNull RecyclerView.ViewHolder holder) {
+        VastAdapter<?> owner = ((VastHolder) holder).ownerAdapter;
+        if (null != owner) {
+            owner.onViewRecycled(holder);
+        }
+    }
+
+    @Override
+    public boolean onFailedToRecycleView(@NonNull RecyclerView.ViewHolder holder) {
+        VastAdapter<?> owner = ((VastHolder) holder).ownerAdapter;
+        return null != owner && owner.onFailedToRecycleView(holder);
+    }
+
+    @Override
+    public void onViewAttachedToWindow(@NonNull RecyclerView.ViewHolder holder) {
+        VastAdapter<?> owner = ((VastHolder) holder).ownerAdapter;
+        if (null != owner) {
+            owner.onViewAttachedToWindow(holder);
+        }
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(@NonNull RecyclerView.ViewHolder holder) {
+        VastAdapter<?> owner = ((VastHolder) holder).ownerAdapter;
+        if (null != owner) {
+            owner.onViewDetachedFromWindow(holder);
+        }
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        mHostRv = recyclerView;
+        for (ChildAdapter child : mChildren) {
+            child.adapter.onAttachedToRecyclerView(recyclerView);
+        }
+        //按条目所属适配器组合span
+        RecyclerView.LayoutManager lm = recyclerView.getLayoutManager();
+        if (lm instanceof GridLayoutManager) {
+            GridLayoutManager glm = (GridLayoutManager) lm;
+            mSpanSizeLookup = new ConcatSpanSizeLookup(glm, glm.getSpanSizeLookup());
+            glm.setSpanSizeLookup(mSpanSizeLookup);
+        }
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        for (ChildAdapter child : mChildren) {
+            child.adapter.onDetachedFromRecyclerView(recyclerView);
+        }
+        //还原GridLayoutManager原有的SpanSizeLookup
+        RecyclerView.LayoutManager lm = recyclerView.getLayoutManager();
+        if (null != mSpanSizeLookup && lm instanceof GridLayoutManager
+                && ((GridLayoutManager) lm).getSpanSizeLookup() == mSpanSizeLookup) {
+            ((GridLayoutManager) lm).setSpanSizeLookup(mSpanSizeLookup.original);
+        }
+        mHostRv = null;
+        mSpanSizeLookup = null;
+        super.onDetachedFromRecyclerView(recyclerView);
+    }
+
+    /**
+     * 清空GridLayoutManager的span下标缓存
+     */
+    void invalidateSpanCache() {
+        if (null != mSpanSizeLookup) {
+            mSpanSizeLookup.invalidateSpanIndexCache();
+            mSpanSizeLookup.invalidateSpanGroupIndexCache();
+        }
+    }
+
+    /**
+     * 为适配器的viewType分配拼接后的viewType
+     */
+    private int obtainViewType(ChildAdapter child, int localViewType) {
+        boolean shared = mShareViewTypes && child.adapter.isLayoutIdViewTypeEnabled()
+                && !child.adapter.isFixedViewType(localViewType);
+        int viewType = shared ? mSharedViewTypes.get(localViewType, -1) : -1;
+        if (viewType < 0) {
+            viewType = mViewTypeOwners.size();
+            mViewTypeOwners.add(child);
+            mViewTypeLocals.put(viewType, localViewType);
+            if (shared) {
+                mSharedViewTypes.put(localViewType, viewType);
+            }
+        }
+        child.viewTypes.put(localViewType, viewType);
+        return viewType;
+    }
+
+    /**
+     * 适配器移除后释放其viewType，共用的viewType转交给其他使用该viewType的适配器
+     */
+    private void releaseViewTypes(ChildAdapter child) {
+        for (int i = 0, size = child.viewTypes.size(); i < size; i++) {
+            int viewType = child.viewTypes.valueAt(i);
+            if (mViewTypeOwners.get(viewType) != child) {
+                continue;
+            }
+            ChildAdapter owner = null;
+            for (ChildAdapter other : mChildren) {
+                if (other.viewTypes.get(child.viewTypes.keyAt(i), -1) == viewType) {
+                    owner = other;
+                    break;
+                }
+            }
+            mViewTypeOwners.set(viewType, owner);
+        }
+    }
+
+    private int indexOf(VastAdapter<?> adapter) {
+        for (int i = 0, size = mChildren.size(); i < size; i++) {
+            if (mChildren.get(i).adapter == adapter) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 更新指定位置之后的适配器下标
+     */
+    private void reindexChildren(int from) {
+        for (int i = from, size = mChildren.size(); i < size; i++) {
+            mChildren.get(i).index = i;
+        }
+    }
+
+    private int getStart(int index) {
+        ensureStarts();
+        return mStarts[index];
+    }
+
+    /**
+     * 二分查找下标所在的适配器，条目数为0的适配器不会被命中
+     */
+    private int childIndexOf(int position) {
+        ensureStarts();
+        int low = 0;
+        int high = mChildren.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mStarts[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private void ensureStarts() {
+        if (!mStartsDirty) {
+            return;
+        }
+        int size = mChildren.size();
+        if (mStarts.length < size + 1) {
+            mStarts = new int[size + 1];
+        }
+        mStarts[0] = 0;
+        for (int i = 0; i < size; i++) {
+            mStarts[i + 1] = mStarts[i] + mChildren.get(i).adapter.getItemCount();
+        }
+        mStartsDirty = false;
+    }
+
+    /**
+     * 被拼接的适配器，监听其数据变化并加上偏移后转发
+     */
+    private class ChildAdapter extends RecyclerView.AdapterDataObserver {
+
+        final VastAdapter<?> adapter;
+
+        /**
+         * 原viewType到拼接后viewType
+         */
+        final SparseIntArray viewTypes = new SparseIntArray();
+
+        /**
+         * 原itemId到拼接后itemId的映射，移除适配器时随之丢弃
+         */
+        final VastStableIdMapper.Scope stableIds;
+
+        /**
+         * 在拼接适配器中的下标，添加或移除适配器时更新
+         */
+        int index;
+
+        ChildAdapter(VastAdapter<?> adapter, VastStableIdMapper.Scope stableIds) {
+            this.adapter = adapter;
+            this.stableIds = stableIds;
+        }
+
+        private int offset() {
+            return mStarts[index];
+        }
+
+        @Override
+        public void onChanged() {
+            mStartsDirty = true;
+            notifyDataSetChanged();
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) {
+            ensureStarts();
+            notifyItemRangeChanged(offset() + positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount, Object payload) {
+            ensureStarts();
+            notifyItemRangeChanged(offset() + positionStart, itemCount, payload);
+        }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) {
+            mStartsDirty = true;
+            ensureStarts();
+            notifyItemRangeInserted(offset() + positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) {
+            mStartsDirty = true;
+            ensureStarts();
+            notifyItemRangeRemoved(offset() + positionStart, itemCount);
+        }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
+            ensureStarts();
+            int offset = offset();
+            notifyItemMoved(offset + fromPosition, offset + toPosition);
+        }
+    }
+
+    /**
+     * 按条目所属适配器组合span，数据条目未设置SpanSizeLookup时交由原有的SpanSizeLookup计算
+     */
+    private final class ConcatSpanSizeLookup extends GridLayoutManager.SpanSizeLookup {
+
+        private final GridLayoutManager mLayoutManager;
+
+        /**
+         * 替换前的SpanSizeLookup
+         */
+        final GridLayoutManager.SpanSizeLookup original;
+
+        ConcatSpanSizeLookup(GridLayoutManager layoutManager, GridLayoutManager.SpanSizeLookup original) {
+            this.mLayoutManager = layoutManager;
+            //重复attach时不再嵌套包装
+            this.original = original instanceof ConcatSpanSizeLookup ? ((ConcatSpanSizeLookup) original).original : original;
+            setSpanIndexCacheEnabled(true);
+            setSpanGroupIndexCacheEnabled(true);
+        }
+
+        @Override
+        public int getSpanSize(int position) {
+            int index = childIndexOf(position);
+            return mChildren.get(index).adapter.getSpanSize(position - mStarts[index], mLayoutManager.getSpanCount(), original);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.zhukai.adapter;
+
+import androidx.annotation.WorkerThread;
+
+import java.util.List;
+
+/**
+ * 游标式的数据读取接口，如数据库查询
+ * <p>
+ * 配合{@link VastCachedDataSource}使用，所有方法均在后台线程串行调用.
+ *
+ * @author zhukai
+ */
+public interface VastCursorSource<D> {
+
+    /**
+     * 获取数据总量
+     */
+    @WorkerThread
+    int getCount();
+
+    /**
+     * 读取一段连续的数据
+     *
+     * @param offset 起始下标
+     * @param limit  最大读取数量
+     * @return 读取到的数据
+     */
+    @WorkerThread
+    List<D> read(int offset, int limit);
+}
@@ -0,0 +1,52 @@
+package com.zhukai.adapter;
+
+import androidx.annotation.MainThread;
+
+/**
+ * 按下标访问的数据源
+ * <p>
+ * 通过{@link VastAdapter#VastAdapter(VastDataSource, int...)}使用，适配器只按需读取可见位置的数据，
+ * 无需事先构建完整的数据列表.
+ *
+ * @author zhukai
+ */
+public interface VastDataSource<D> {
+
+    /**
+     * 获取数据总量
+     */
+    int getCount();
+
+    /**
+     * 获取下标对应的数据
+     *
+     * @return 数据尚未就绪时可返回null作为占位，就绪后需通过{@link Observer#onRangeLoaded(int, int)}通知
+     */
+    D get(int index);
+
+    /**
+     * 设置数据变化观察者，由适配器调用
+     */
+    void setObserver(Observer observer);
+
+    /**
+     * 数据变化观察者，需在主线程回调
+     */
+    interface Observer {
+
+        /**
+         * 数据整体变化，包括数据总量变化
+         */
+        @MainThread
+        void onChanged();
+
+        /**
+         * 数据区间已就绪
+         *
+         * @param start 起始下标
+         * @param count 数量
+         */
+        @MainThread
+        void onRangeLoaded(int start, int count);
+    }
+}
@@ -0,0 +1,87 @@
+package com.zhukai.adapter;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 适配器内部共用的线程调度
+ *
+ * @author zhukai
+ */
+final class VastExecutors {
+
+    /**
+     * 后台线程数量
+     */
+    private static final int BACKGROUND_THREAD_COUNT = 2;
+
+    /**
+     * 主线程Handler
+     */
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    /**
+     * 后台线程池，首次使用时创建
+     */
+    private static volatile ExecutorService sBackgroundExecutor;
+
+    private VastExecutors() {
+    }
+
+    /**
+     * 获取共用的后台线程池
+     */
+    static Executor background() {
+        if (null == sBackgroundExecutor) {
+            synchronized (VastExecutors.class) {
+                if (null == sBackgroundExecutor) {
+                    sBackgroundExecutor = Executors.newFixedThreadPool(BACKGROUND_THREAD_COUNT, new VastThreadFactory());
+                }
+            }
+        }
+        return sBackgroundExecutor;
+    }
+
+    /**
+     * 在主线程执行
+     */
+    static void postMain(Runnable runnable) {
+        MAIN_HANDLER.post(runnable);
+    }
+
+    /**
+     * 延迟在主线程执行
+     */
+    static void postMainDelayed(Runnable runnable, long delayMillis) {
+        MAIN_HANDLER.postDelayed(runnable, delayMillis);
+    }
+
+    /**
+     * 当前是否为主线程
+     */
+    static boolean isMainThread() {
+        return Looper.getMainLooper().getThread() == Thread.currentThread();
+    }
+
+    /**
+     * 后台线程工厂，线程以守护线程方式运行
+     */
+    private static class VastThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger mCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "vast-adapter-" + mCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.zhukai.adapter;
+
+/**
+ * 树状数组
+ * <p>
+ * 维护非负整数序列的前缀和，单点修改与前缀查询均为O(log n)，
+ * 并支持按前缀和反查所在下标.
+ *
+ * @author zhukai
+ */
+final class VastFenwickTree {
+
+    /**
+     * 下标从1开始的树状数组
+     */
+    private int[] mTree = new int[1];
+
+    /**
+     * 元素数量
+     */
+    private int mSize;
+
+    /**
+     * 以给定序列重建，O(n)
+     */
+    void build(int[] values, int size) {
+        if (mTree.length < size + 1) {
+            mTree = new int[size + 1];
+        }
+        mSize = size;
+        mTree[0] = 0;
+        for (int i = 1; i <= size; i++) {
+            mTree[i] = values[i - 1];
+        }
+        for (int i = 1; i <= size; i++) {
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                mTree[parent] += mTree[i];
+            }
+        }
+    }
+
+    /**
+     * 元素数量
+     */
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * 第index个元素增加delta
+     */
+    void add(int index, int delta) {
+        for (int i = index + 1; i <= mSize; i += i & -i) {
+            mTree[i] += delta;
+        }
+    }
+
+    /**
+     * 前count个元素之和
+     */
+    int prefix(int count) {
+        int sum = 0;
+        for (int i = Math.min(count, mSize); i > 0; i -= i & -i) {
+            sum += mTree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 查找前缀和超过value的第一个元素，即value所在的元素下标
+     *
+     * @return value不小于总和时返回size
+     */
+    int find(int value) {
+        int index = 0;
+        int step = Integer.highestOneBit(Math.max(mSize, 1));
+        for (; step > 0; step >>= 1) {
+            int next = index + step;
+            if (next <= mSize && mTree[next] <= value) {
+                index = next;
+                value -= mTree[next];
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,356 @@
+package com.zhukai.adapter;
+
+import androidx.annotation.LayoutRes;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 可展开的分组适配器
+ * <p>
+ * 每个分组展开为一行分组条目及其子条目，各分组占用的行数保存在树状数组中，
+ * 数据下标与(分组, 子条目)之间的转换为O(log n)，展开与收起只局部刷新对应区间，无需重建数据列表.
+ * 数据下标中分组条目与子条目依次排列，Header等偏移由{@link VastAdapter}处理.
+ *
+ * @author zhukai
+ */
+public abstract class VastGroupAdapter<G, C> extends VastAdapter<Object> {
+
+    /**
+     * 分组展开状态变化时刷新分组条目携带的payload
+     */
+    public static final Object PAYLOAD_EXPANSION = new Object();
+
+    /**
+     * 分组数据
+     */
+    private final List<G> mGroups = new ArrayList<>();
+
+    /**
+     * 每个分组当前占用的行数
+     */
+    private int[] mGroupSizes = new int[0];
+
+    /**
+     * 每个分组的展开状态
+     */
+    private boolean[] mExpanded = new boolean[0];
+
+    /**
+     * 分组占用行数的前缀和
+     */
+    private final VastFenwickTree mTree = new VastFenwickTree();
+
+    /**
+     * 总行数
+     */
+    private int mRowCount;
+
+    /**
+     * 上一次定位到的分组及其起始下标，顺序滑动时避免重复查找
+     */
+    private int mLastGroup = -1;
+
+    private int mLastGroupStart;
+
+    /**
+     * 布局数量
+     */
+    private final int mLayoutCount;
+
+    /**
+     * 分组条目是否占满整行
+     */
+    private boolean mGroupFullSpan = true;
+
+    /**
+     * @param groups    分组数据，默认全部收起
+     * @param layoutIds 布局id，默认第一个为分组布局，第二个为子条目布局
+     */
+    public VastGroupAdapter(List<G> groups, @LayoutRes int... layoutIds) {
+        super((List<Object>) null, layoutIds);
+        this.mLayoutCount = null == layoutIds ? 0 : layoutIds.length;
+        if (null != groups) {
+            mGroups.addAll(groups);
+        }
+        rebuild(false);
+    }
+
+    /**
+     * 获取分组下的子条目数量
+     */
+    public abstract int getChildCount(int groupPosition);
+
+    /**
+     * 获取分组下的子条目
+     */
+    public abstract C getChild(int groupPosition, int childPosition);
+
+    /**
+     * 绑定分组布局数据
+     */
+    public abstract void bindGroupHolder(VastHolder holder, G group, int groupPosition, boolean expanded);
+
+    /**
+     * 绑定子条目布局数据
+     */
+    public abstract void bindChildHolder(VastHolder holder, C child, int groupPosition, int childPosition);
+
+    /**
+     * 分组的布局下标
+     */
+    public int getGroupViewIndex(int groupPosition) {
+        return 0;
+    }
+
+    /**
+     * 子条目的布局下标
+     */
+    public int getChildViewIndex(int groupPosition, int childPosition) {
+        return mLayoutCount > 1 ? 1 : 0;
+    }
+
+    /**
+     * 重新设置分组数据
+     *
+     * @param expanded 是否全部展开
+     */
+    public void setGroups(List<G> groups, boolean expanded) {
+        mGroups.clear();
+        if (null != groups) {
+            mGroups.addAll(groups);
+        }
+        rebuild(expanded);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 设置分组条目是否占满整行，默认占满
+     */
+    public void setGroupFullSpan(boolean fullSpan) {
+        this.mGroupFullSpan = fullSpan;
+        invalidateSpanCache();
+    }
+
+    /**
+     * 获取分组数量
+     */
+    public int getGroupCount() {
+        return mGroups.size();
+    }
+
+    /**
+     * 获取分组
+     */
+    public G getGroup(int groupPosition) {
+        return mGroups.get(groupPosition);
+    }
+
+    /**
+     * 分组是否展开
+     */
+    public boolean isGroupExpanded(int groupPosition) {
+        return mExpanded[groupPosition];
+    }
+
+    /**
+     * 展开分组
+     */
+    public void expandGroup(int groupPosition) {
+        if (mExpanded[groupPosition]) {
+            return;
+        }
+        mExpanded[groupPosition] = true;
+        int start = getGroupStart(groupPosition);
+        int childCount = Math.max(getChildCount(groupPosition), 0);
+        resizeGroup(groupPosition, 1 + childCount);
+        notifyDataItemRangeInserted(start + 1, childCount);
+        notifyDataItemChanged(start, PAYLOAD_EXPANSION);
+    }
+
+    /**
+     * 收起分组
+     */
+    public void collapseGroup(int groupPosition) {
+        if (!mExpanded[groupPosition]) {
+            return;
+        }
+        mExpanded[groupPosition] = false;
+        int start = getGroupStart(groupPosition);
+        int childCount = mGroupSizes[groupPosition] - 1;
+        resizeGroup(groupPosition, 1);
+        notifyDataItemRangeRemoved(start + 1, childCount);
+        notifyDataItemChanged(start, PAYLOAD_EXPANSION);
+    }
+
+    /**
+     * 切换分组展开状态
+     */
+    public void toggleGroup(int groupPosition) {
+        if (mExpanded[groupPosition]) {
+            collapseGroup(groupPosition);
+        } else {
+            expandGroup(groupPosition);
+        }
+    }
+
+    /**
+     * 展开全部分组
+     */
+    public void expandAll() {
+        rebuild(true);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 收起全部分组
+     */
+    public void collapseAll() {
+        rebuild(false);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 分组下的子条目变化后调用，重新读取子条目数量并刷新该分组
+     */
+    public void notifyGroupChildrenChanged(int groupPosition) {
+        int start = getGroupStart(groupPosition);
+        if (!mExpanded[groupPosition]) {
+            notifyDataItemChanged(start);
+            return;
+        }
+        int oldCount = mGroupSizes[groupPosition] - 1;
+        int newCount = Math.max(getChildCount(groupPosition), 0);
+        resizeGroup(groupPosition, 1 + newCount);
+        notifyDataItemRangeChanged(start, 1 + Math.min(oldCount, newCount));
+        if (newCount > oldCount) {
+            notifyDataItemRangeInserted(start + 1 + oldCount, newCount - oldCount);
+        } else if (newCount < oldCount) {
+            notifyDataItemRangeRemoved(start + 1 + newCount, oldCount - newCount);
+        }
+    }
+
+    /**
+     * 获取分组条目的数据下标
+     */
+    public int getGroupStart(int groupPosition) {
+        return mTree.prefix(groupPosition);
+    }
+
+    /**
+     * 获取数据下标所在的分组
+     */
+    public int getGroupPosition(int position) {
+        return locate(position);
+    }
+
+    /**
+     * 获取数据下标在分组内的子条目下标
+     *
+     * @return 分组条目返回-1
+     */
+    public int getChildPosition(int position) {
+        locate(position);
+        return position - mLastGroupStart - 1;
+    }
+
+    /**
+     * 数据下标是否为分组条目
+     */
+    public boolean isGroupRow(int position) {
+        locate(position);
+        return position == mLastGroupStart;
+    }
+
+    @Override
+    public int getDataCount() {
+        return mRowCount;
+    }
+
+    /**
+     * 分组条目返回分组，子条目返回子条目
+     */
+    @Override
+    public Object getData(int position) {
+        int group = locate(position);
+        int child = position - mLastGroupStart - 1;
+        return child < 0 ? mGroups.get(group) : getChild(group, child);
+    }
+
+    @Override
+    public int getItemViewIndex(int position) {
+        int dataPosition = getDataPosition(position);
+        int group = locate(dataPosition);
+        int child = dataPosition - mLastGroupStart - 1;
+        return child < 0 ? getGroupViewIndex(group) : getChildViewIndex(group, child);
+    }
+
+    @Override
+    public boolean isFullSpanData(int position) {
+        return mGroupFullSpan && isGroupRow(position);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final void bindHolder(VastHolder holder, Object data, int position) {
+        int group = locate(position);
+        int child = position - mLastGroupStart - 1;
+        if (child < 0) {
+            bindGroupHolder(holder, (G) data, group, mExpanded[group]);
+        } else {
+            bindChildHolder(holder, (C) data, group, child);
+        }
+    }
+
+    /**
+     * 分组模式下数据由分组提供，不支持直接提交列表
+     */
+    @Override
+    public void submitList(List<Object> newList) {
+        throw new UnsupportedOperationException("VastGroupAdapter is driven by setGroups");
+    }
+
+    @Override
+    void checkDataMutable() {
+        throw new UnsupportedOperationException("VastGroupAdapter is driven by setGroups");
+    }
+
+    /**
+     * 查找数据下标所在的分组，同时记录该分组的起始下标
+     */
+    private int locate(int position) {
+        int group = mLastGroup;
+        if (group >= 0 && group < mGroups.size() && position >= mLastGroupStart
+                && position < mLastGroupStart + mGroupSizes[group]) {
+            return group;
+        }
+        group = mTree.find(position);
+        mLastGroup = group;
+        mLastGroupStart = mTree.prefix(group);
+        return group;
+    }
+
+    private void resizeGroup(int groupPosition, int size) {
+        int delta = size - mGroupSizes[groupPosition];
+        mGroupSizes[groupPosition] = size;
+        mTree.add(groupPosition, delta);
+        mRowCount += delta;
+        mLastGroup = -1;
+    }
+
+    private void rebuild(boolean expanded) {
+        int count = mGroups.size();
+        if (mGroupSizes.length < count) {
+            mGroupSizes = new int[count];
+            mExpanded = new boolean[count];
+        }
+        mRowCount = 0;
+        for (int i = 0; i < count; i++) {
+            mExpanded[i] = expanded;
+            mGroupSizes[i] = expanded ? 1 + Math.max(getChildCount(i), 0) : 1;
+            mRowCount += mGroupSizes[i];
+        }
+        mTree.build(mGroupSizes, count);
+        mLastGroup = -1;
+    }
+}
@@ -16,6 +16,8 @@ import androidx.annotation.StringRes;
 import androidx.core.content.ContextCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
+import java.io.File;
+
 /**
  * 通用适配器viewHolder
  *
@@ -28,13 +30,66 @@ public class VastHolder extends RecyclerView.ViewHolder {
      */
     public int itemViewIndex = -1;
 
+    /**
+     * 创建该Holder的工厂，使用{@link VastHolder}时为空
+     */
+    VastHolderFactory factory;
+
+    /**
+     * 创建或最近一次接管该Holder的适配器
+     */
+    VastAdapter<?> ownerAdapter;
+
+    /**
+     * 已设置的点击监听版本，与适配器不一致时重新设置
+     */
+    int clickListenerVersion = -1;
+
+    /**
+     * 条目View的可点击、可长按状态是否由适配器按监听维护，布局或onCreateHolder已设为可点击时为false
+     */
+    boolean managesClick;
+
+    boolean managesLongClick;
+
+    /**
+     * 已设置点击分发的子View id，及设置前子View的可点击状态
+     */
+    int[] childClickIds;
+
+    boolean[] childClickable;
+
+    /**
+     * 绑定序号，每次整体绑定数据前递增，用于丢弃过期的异步结果
+     */
+    volatile int bindGeneration;
+
+    /**
+     * 当前绑定数据的key，用于保存View状态，未保存状态时为{@link RecyclerView#NO_ID}
+     */
+    long stateKey = RecyclerView.NO_ID;
+
+    /**
+     * 绑定的数据下标，仅在数据源为{@link VastCachedDataSource}时记录，用于保留显示中的页
+     */
+    int pinnedPosition = -1;
 
-    VastHolder(@NonNull View itemView) {
+    protected VastHolder(@NonNull View itemView) {
         super(itemView);
     }
 
     private SparseArray<View> views = new SparseArray<>();
 
+    /**
+     * 进行中的图片加载，以view_id为key，首次异步加载时创建
+     */
+    private SparseArray<VastImageLoader.Request> imageRequests;
+
+    /**
+     * 进行中的文本预计算，以view_id为key，首次使用时创建
+     */
+    private SparseArray<VastTextPrecomputer.Request> textRequests;
+
     /**
      * 通过id获取View
      *
@@ -56,6 +111,7 @@ public class VastHolder extends RecyclerView.ViewHolder {
      * @param s  文本
      */
     public void setText(@IdRes int id, String s) {
+        cancelTextLoad(id);
         TextView view = getViewById(id);
         view.setText(s);
     }
@@ -67,6 +123,7 @@ public class VastHolder extends RecyclerView.ViewHolder {
      * @param resId 文本资源id
      */
     public void setText(@IdRes int id, @StringRes int resId) {
+        cancelTextLoad(id);
         TextView view = getViewById(id);
         view.setText(resId);
     }
@@ -99,6 +156,7 @@ public class VastHolder extends RecyclerView.ViewHolder {
      * @param resId drawable资源id
      */
     public void setImageResource(@IdRes int id, @DrawableRes int resId) {
+        cancelImageLoad(id);
         ImageView view = getViewById(id);
         view.setImageResource(resId);
     }
@@ -110,6 +168,7 @@ public class VastHolder extends RecyclerView.ViewHolder {
      * @param bitmap bitmap
      */
     public void setImageBitmap(@IdRes int id, Bitmap bitmap) {
+        cancelImageLoad(id);
         ImageView view = getViewById(id);
         view.setImageBitmap(bitmap);
     }
@@ -121,10 +180,127 @@ public class VastHolder extends RecyclerView.ViewHolder {
      * @param drawable drawable
      */
     public void setImageDrawable(@IdRes int id, Drawable drawable) {
+        cancelImageLoad(id);
         ImageView view = getViewById(id);
         view.setImageDrawable(drawable);
     }
 
+    /**
+     * 在后台线程按View尺寸采样解码资源图片
+     *
+     * @param id    view_id
+     * @param resId drawable资源id，需为位图资源
+     */
+    public void loadImageResource(@IdRes int id, @DrawableRes int resId) {
+        loadImage(id, VastImageLoader.Source.resource(resId));
+    }
+
+    /**
+     * 在后台线程按View尺寸采样解码图片文件
+     *
+     * @param id   view_id
+     * @param file 图片文件
+     */
+    public void loadImageFile(@IdRes int id, File file) {
+        loadImage(id, VastImageLoader.Source.file(file.getAbsolutePath()));
+    }
+
+    /**
+     * 在后台线程按View尺寸采样解码assets中的图片
+     *
+     * @param id        view_id
+     * @param assetPath assets下的相对路径
+     */
+    public void loadImageAsset(@IdRes int id, String assetPath) {
+        loadImage(id, VastImageLoader.Source.asset(assetPath));
+    }
+
+    private void loadImage(int id, VastImageLoader.Source source) {
+        cancelImageLoad(id);
+        ImageView view = getViewById(id);
+        VastImageLoader.Request request = VastImageLoader.getInstance().load(this, view, source);
+        if (null != request) {
+            if (null == imageRequests) {
+                imageRequests = new SparseArray<>();
+            }
+            imageRequests.put(id, request);
+        }
+    }
+
+    /**
+     * 取消View上进行中的图片加载
+     */
+    private void cancelImageLoad(int id) {
+        if (null != imageRequests) {
+            VastImageLoader.Request request = imageRequests.get(id);
+            if (null != request) {
+                request.cancel();
+                imageRequests.remove(id);
+            }
+        }
+    }
+
+    /**
+     * 在后台线程预计算文本布局后设置，结果以key与view_id缓存，适合长文本或富文本
+     * <p>
+     * 命中缓存时直接设置;否则先清空文本，计算完成且Holder未重新绑定时再设置.
+     * 缓存范围为条目中的单个TextView，同一条目的多个TextView可使用相同的key.
+     *
+     * @param id   view_id
+     * @param key  条目的唯一key，如数据id，不可为空
+     * @param text 文本
+     */
+    public void setPrecomputedText(@IdRes int id, Object key, CharSequence text) {
+        cancelTextLoad(id);
+        TextView view = getViewById(id);
+        VastTextPrecomputer.Request request = VastTextPrecomputer.getInstance()
+                .load(this, view, new VastTextPrecomputer.CacheKey(key, id), text);
+        if (null != request) {
+            if (null == textRequests) {
+                textRequests = new SparseArray<>();
+            }
+            textRequests.put(id, request);
+        }
+    }
+
+    /**
+     * 取消View上进行中的文本预计算
+     */
+    private void cancelTextLoad(int id) {
+        if (null != textRequests) {
+            VastTextPrecomputer.Request request = textRequests.get(id);
+            if (null != request) {
+                request.cancel();
+                textRequests.remove(id);
+            }
+        }
+    }
+
+    /**
+     * 取消全部进行中的图片加载与文本预计算，Holder被回收时由适配器调用
+     */
+    public void cancelPendingLoads() {
+        cancelImageLoads();
+        if (null != textRequests) {
+            for (int i = 0, size = textRequests.size(); i < size; i++) {
+                textRequests.valueAt(i).cancel();
+            }
+            textRequests.clear();
+        }
+    }
+
+    /**
+     * 取消全部进行中的图片加载
+     */
+    public void cancelImageLoads() {
+        if (null != imageRequests) {
+            for (int i = 0, size = imageRequests.size(); i < size; i++) {
+                imageRequests.valueAt(i).cancel();
+            }
+            imageRequests.clear();
+        }
+    }
+
     /**
      * 设置背景
      *
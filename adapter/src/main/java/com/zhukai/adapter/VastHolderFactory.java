@@ -0,0 +1,24 @@
+package com.zhukai.adapter;
+
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Holder创建工厂
+ * <p>
+ * 通过{@link VastAdapter#setHolderFactory(int, VastHolderFactory)}为布局指定Holder类型，
+ * 由注解处理器生成的Holder均提供FACTORY常量.
+ *
+ * @author zhukai
+ */
+public interface VastHolderFactory {
+
+    /**
+     * 创建Holder
+     *
+     * @param itemView 已inflate的布局
+     */
+    @NonNull
+    VastHolder create(@NonNull View itemView);
+}
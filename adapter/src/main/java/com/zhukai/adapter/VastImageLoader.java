@@ -0,0 +1,284 @@
+package com.zhukai.adapter;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.Log;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.WorkerThread;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executor;
+
+/**
+ * 图片异步加载
+ * <p>
+ * 在后台线程按目标ImageView的尺寸采样解码资源、文件或assets中的图片，解码结果按字节数限制的LRU方式缓存在内存中;
+ * 由{@link VastHolder#loadImageResource(int, int)}等方法使用，Holder被回收或重新加载同一View时取消进行中的请求;
+ * 请求同时记录发起时Holder的绑定序号，Holder已整体重新绑定时同样丢弃结果.
+ *
+ * @author zhukai
+ */
+public final class VastImageLoader {
+
+    private static final String TAG = "VastImageLoader";
+
+    /**
+     * 默认缓存占最大可用内存的比例
+     */
+    private static final int CACHE_MEMORY_DIVISOR = 8;
+
+    private static volatile VastImageLoader sInstance;
+
+    /**
+     * 内存缓存，以字节数计算容量
+     */
+    private final LruCache<String, Bitmap> mCache;
+
+    /**
+     * 解码线程，为空时使用共用后台线程池
+     */
+    private Executor mExecutor;
+
+    /**
+     * @param maxCacheBytes 内存缓存的最大字节数
+     */
+    public VastImageLoader(int maxCacheBytes) {
+        mCache = new LruCache<String, Bitmap>(maxCacheBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getByteCount();
+            }
+        };
+    }
+
+    /**
+     * 获取默认实例，缓存容量为最大可用内存的1/8
+     */
+    public static VastImageLoader getInstance() {
+        if (null == sInstance) {
+            synchronized (VastImageLoader.class) {
+                if (null == sInstance) {
+                    sInstance = new VastImageLoader((int) Math.min(Runtime.getRuntime().maxMemory() / CACHE_MEMORY_DIVISOR,
+                            Integer.MAX_VALUE));
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 替换默认实例，用于自定义缓存容量
+     */
+    public static void setInstance(VastImageLoader loader) {
+        sInstance = loader;
+    }
+
+    /**
+     * 设置解码线程，默认使用共用后台线程池
+     */
+    public void setExecutor(Executor executor) {
+        this.mExecutor = executor;
+    }
+
+    /**
+     * 清空内存缓存
+     */
+    public void clearCache() {
+        mCache.evictAll();
+    }
+
+    /**
+     * 加载图片到ImageView，命中缓存时直接设置
+     *
+     * @param holder 所在Holder，用于判断是否已重新绑定
+     * @return 进行中的请求，命中缓存时返回null
+     */
+    @MainThread
+    Request load(VastHolder holder, ImageView view, Source source) {
+        int[] size = targetSize(view);
+        final String key = source.key + '@' + size[0] + 'x' + size[1];
+        Bitmap cached = mCache.get(key);
+        if (null != cached) {
+            view.setImageBitmap(cached);
+            return null;
+        }
+        view.setImageDrawable(null);
+
+        final Request request = new Request(holder, view, source, size[0], size[1]);
+        final Context context = view.getContext().getApplicationContext();
+        Executor executor = null != mExecutor ? mExecutor : VastExecutors.background();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (request.isStale()) {
+                    return;
+                }
+                final Bitmap bitmap = decode(context, request);
+                if (null == bitmap) {
+                    return;
+                }
+                mCache.put(key, bitmap);
+                VastExecutors.postMain(new Runnable() {
+                    @Override
+                    public void run() {
+                        //请求过期说明Holder已回收、重新绑定或重新加载了其他图片
+                        if (!request.isStale()) {
+                            request.view.setImageBitmap(bitmap);
+                        }
+                    }
+                });
+            }
+        });
+        return request;
+    }
+
+    /**
+     * 目标尺寸，未完成布局时依次使用LayoutParams与屏幕尺寸
+     */
+    private static int[] targetSize(ImageView view) {
+        int width = view.getWidth();
+        int height = view.getHeight();
+        ViewGroup.LayoutParams lp = view.getLayoutParams();
+        if (width <= 0 && null != lp && lp.width > 0) {
+            width = lp.width;
+        }
+        if (height <= 0 && null != lp && lp.height > 0) {
+            height = lp.height;
+        }
+        if (width <= 0) {
+            width = view.getResources().getDisplayMetrics().widthPixels;
+        }
+        if (height <= 0) {
+            height = view.getResources().getDisplayMetrics().heightPixels;
+        }
+        return new int[]{width, height};
+    }
+
+    @WorkerThread
+    private static Bitmap decode(Context context, Request request) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        decode(context, request.source, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0 || request.isStale()) {
+            return null;
+        }
+        options.inSampleSize = sampleSize(options.outWidth, options.outHeight, request.width, request.height);
+        options.inJustDecodeBounds = false;
+        return decode(context, request.source, options);
+    }
+
+    private static Bitmap decode(Context context, Source source, BitmapFactory.Options options) {
+        switch (source.type) {
+            case Source.TYPE_RESOURCE:
+                return BitmapFactory.decodeResource(context.getResources(), source.resId, options);
+            case Source.TYPE_FILE:
+                return BitmapFactory.decodeFile(source.path, options);
+            default:
+                try (InputStream in = context.getAssets().open(source.path)) {
+                    return BitmapFactory.decodeStream(in, null, options);
+                } catch (IOException e) {
+                    Log.w(TAG, "failed to open asset " + source.path, e);
+                    return null;
+                }
+        }
+    }
+
+    /**
+     * 计算不小于目标尺寸的最大2的幂采样率
+     */
+    static int sampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= targetWidth && height / (sampleSize * 2) >= targetHeight) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    /**
+     * 图片来源
+     */
+    static final class Source {
+
+        static final int TYPE_RESOURCE = 0;
+
+        static final int TYPE_FILE = 1;
+
+        static final int TYPE_ASSET = 2;
+
+        final int type;
+
+        final int resId;
+
+        final String path;
+
+        /**
+         * 缓存key
+         */
+        final String key;
+
+        private Source(int type, int resId, String path, String key) {
+            this.type = type;
+            this.resId = resId;
+            this.path = path;
+            this.key = key;
+        }
+
+        static Source resource(int resId) {
+            return new Source(TYPE_RESOURCE, resId, null, "res:" + resId);
+        }
+
+        static Source file(String path) {
+            return new Source(TYPE_FILE, 0, path, "file:" + path);
+        }
+
+        static Source asset(String path) {
+            return new Source(TYPE_ASSET, 0, path, "asset:" + path);
+        }
+    }
+
+    /**
+     * 进行中的加载请求
+     */
+    static final class Request {
+
+        final VastHolder holder;
+
+        final ImageView view;
+
+        final Source source;
+
+        final int width;
+
+        final int height;
+
+        /**
+         * 发起请求时Holder的绑定序号
+         */
+        final int bindGeneration;
+
+        volatile boolean cancelled;
+
+        Request(VastHolder holder, ImageView view, Source source, int width, int height) {
+            this.holder = holder;
+            this.view = view;
+            this.source = source;
+            this.width = width;
+            this.height = height;
+            this.bindGeneration = holder.bindGeneration;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        boolean isStale() {
+            return cancelled || holder.bindGeneration != bindGeneration;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.zhukai.adapter;
+
+import android.util.SparseArray;
+
+import androidx.annotation.MainThread;
+
+/**
+ * 创建与绑定耗时统计
+ * <p>
+ * 通过{@link VastAdapter#setMetrics(VastMetrics)}安装后，按条目类型分别记录创建、加载布局与绑定的耗时;
+ * 条目类型为数据的布局下标，或{@link #TYPE_HEADER}、{@link #TYPE_FOOTER}、{@link #TYPE_VACANCY}.
+ * 每种类型的直方图在首次出现时分配，之后记录不产生对象分配;未安装时适配器不进行任何计时.
+ * 所有方法需在主线程调用.
+ *
+ * @author zhukai
+ */
+@MainThread
+public class VastMetrics {
+
+    /**
+     * Holder创建，包含加载布局
+     */
+    public static final int PHASE_CREATE = 0;
+
+    /**
+     * 加载布局，使用预加载的View时不记录
+     */
+    public static final int PHASE_INFLATE = 1;
+
+    /**
+     * 数据绑定
+     */
+    public static final int PHASE_BIND = 2;
+
+    private static final int PHASE_COUNT = 3;
+
+    /**
+     * 头部View
+     */
+    public static final int TYPE_HEADER = -1;
+
+    /**
+     * 尾部View
+     */
+    public static final int TYPE_FOOTER = -2;
+
+    /**
+     * 空缺view
+     */
+    public static final int TYPE_VACANCY = -3;
+
+    /**
+     * 各条目类型的直方图，按阶段排列
+     */
+    private final SparseArray<VastTimingHistogram[]> mHistograms = new SparseArray<>();
+
+    /**
+     * 单次绑定的耗时预算，单位纳秒，不大于0时不检测
+     */
+    private long mBindBudgetNanos;
+
+    private OnBudgetExceededListener mOnBudgetExceededListener;
+
+    /**
+     * 每绑定多少次回调一次统计结果，不大于0时不回调
+     */
+    private int mReportInterval;
+
+    private int mBindsSinceReport;
+
+    private OnReportListener mOnReportListener;
+
+    /**
+     * 设置单次绑定的耗时预算，超出时回调
+     *
+     * @param budgetNanos 耗时预算，单位纳秒，如一帧16ms的一部分
+     */
+    public void setBindBudget(long budgetNanos, OnBudgetExceededListener listener) {
+        this.mBindBudgetNanos = budgetNanos;
+        this.mOnBudgetExceededListener = listener;
+    }
+
+    /**
+     * 设置统计结果回调
+     *
+     * @param bindInterval 每绑定多少次回调一次
+     */
+    public void setOnReportListener(int bindInterval, OnReportListener listener) {
+        this.mReportInterval = bindInterval;
+        this.mOnReportListener = listener;
+        this.mBindsSinceReport = 0;
+    }
+
+    /**
+     * 立即回调一次统计结果
+     */
+    public void report() {
+        mBindsSinceReport = 0;
+        if (null != mOnReportListener) {
+            mOnReportListener.onReport(this);
+        }
+    }
+
+    /**
+     * 获取已记录的条目类型数量
+     */
+    public int getTypeCount() {
+        return mHistograms.size();
+    }
+
+    /**
+     * 获取第index个已记录的条目类型
+     */
+    public int getTypeAt(int index) {
+        return mHistograms.keyAt(index);
+    }
+
+    /**
+     * 获取指定阶段与条目类型的直方图
+     *
+     * @return 未记录过时返回null
+     */
+    public VastTimingHistogram getHistogram(int phase, int type) {
+        VastTimingHistogram[] histograms = mHistograms.get(type);
+        return null == histograms ? null : histograms[phase];
+    }
+
+    /**
+     * 获取指定阶段与条目类型的百分位耗时，单位纳秒
+     *
+     * @param percentile 百分位，取值0~100
+     */
+    public long getPercentile(int phase, int type, double percentile) {
+        VastTimingHistogram histogram = getHistogram(phase, type);
+        return null == histogram ? 0 : histogram.getPercentile(percentile);
+    }
+
+    /**
+     * 清空全部记录
+     */
+    public void reset() {
+        for (int i = 0, size = mHistograms.size(); i < size; i++) {
+            for (VastTimingHistogram histogram : mHistograms.valueAt(i)) {
+                histogram.reset();
+            }
+        }
+        mBindsSinceReport = 0;
+    }
+
+    void recordCreate(int type, long nanos) {
+        histogramsOf(type)[PHASE_CREATE].record(nanos);
+    }
+
+    void recordInflate(int type, long nanos) {
+        histogramsOf(type)[PHASE_INFLATE].record(nanos);
+    }
+
+    void recordBind(int type, int position, long nanos) {
+        histogramsOf(type)[PHASE_BIND].record(nanos);
+        if (mBindBudgetNanos > 0 && nanos > mBindBudgetNanos && null != mOnBudgetExceededListener) {
+            mOnBudgetExceededListener.onBudgetExceeded(type, position, nanos);
+        }
+        if (mReportInterval > 0 && ++mBindsSinceReport >= mReportInterval) {
+            report();
+        }
+    }
+
+    private VastTimingHistogram[] histogramsOf(int type) {
+        VastTimingHistogram[] histograms = mHistograms.get(type);
+        if (null == histograms) {
+            histograms = new VastTimingHistogram[PHASE_COUNT];
+            for (int i = 0; i < PHASE_COUNT; i++) {
+                histograms[i] = new VastTimingHistogram();
+            }
+            mHistograms.put(type, histograms);
+        }
+        return histograms;
+    }
+
+    /**
+     * 单次绑定超出耗时预算监听
+     */
+    public interface OnBudgetExceededListener {
+
+        /**
+         * @param type     条目类型
+         * @param position 数据下标
+         * @param nanos    本次绑定耗时，单位纳秒
+         */
+        void onBudgetExceeded(int type, int position, long nanos);
+    }
+
+    /**
+     * 统计结果监听
+     */
+    public interface OnReportListener {
+
+        /**
+         * 通过{@link #getPercentile(int, int, double)}等方法读取统计结果
+         */
+        void onReport(VastMetrics metrics);
+    }
+}
@@ -0,0 +1,306 @@
+package com.zhukai.adapter;
+
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import androidx.annotation.LayoutRes;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * 多类型适配器
+ * <p>
+ * 按数据的类型(或类型加区分值)注册布局与{@link VastBinder}，无需重写{@link #getItemViewIndex(int)}与按类型分支的绑定逻辑;
+ * 数据类型到布局下标的解析结果以类型为key缓存在IdentityHashMap中，之后每次查找为O(1)，
+ * 未直接注册的子类按父类及其实现的接口(含父接口)查找一次后同样被缓存.
+ * 不同类型可注册同一布局，共用布局下标与Holder，绑定时按数据类型选择绑定器.
+ * 使用{@link VastDataSource}时未就绪的位置数据为null，需通过{@link #setPlaceholder(int, VastBinder)}设置占位布局.
+ * 注册需在设置给RecyclerView之前完成.
+ *
+ * @author zhukai
+ */
+public class VastMultiTypeAdapter extends VastAdapter<Object> {
+
+    /**
+     * 已注册的类型
+     */
+    private final IdentityHashMap<Class<?>, TypeEntry> mRegistered = new IdentityHashMap<>();
+
+    /**
+     * 数据类型到注册类型的解析缓存
+     */
+    private final IdentityHashMap<Class<?>, TypeEntry> mResolved = new IdentityHashMap<>();
+
+    /**
+     * 全部注册，按注册顺序排列
+     */
+    private final ArrayList<Registration> mRegistrations = new ArrayList<>();
+
+    /**
+     * 布局资源id到布局下标，同一布局只占用一个下标
+     */
+    private final SparseIntArray mLayoutIndexes = new SparseIntArray();
+
+    /**
+     * 数据为null时使用的占位注册
+     */
+    private Registration mPlaceholder;
+
+    @SuppressWarnings("unchecked")
+    public VastMultiTypeAdapter(List<?> data) {
+        super((List<Object>) data);
+    }
+
+    @SuppressWarnings("unchecked")
+    public VastMultiTypeAdapter(VastDataSource<?> dataSource) {
+        super((VastDataSource<Object>) dataSource);
+    }
+
+    /**
+     * 注册数据类型的布局与绑定器
+     */
+    public <T> VastMultiTypeAdapter register(Class<T> type, @LayoutRes int layoutId, VastBinder<T> binder) {
+        TypeEntry entry = obtainEntry(type);
+        if (null != entry.discriminator || null != entry.variants) {
+            throw new IllegalStateException(type.getName() + " is registered with variants");
+        }
+        entry.registration = addRegistration(layoutId, binder);
+        return this;
+    }
+
+    /**
+     * 注册数据类型在指定区分值下的布局与绑定器，需同时通过{@link #setDiscriminator(Class, Discriminator)}设置区分方式
+     * <p>
+     * 未设置区分方式时，首次解析该类型的数据时抛出IllegalStateException;已按无区分值注册的类型不可再注册区分值，反之亦然.
+     *
+     * @param variant 区分值，与{@link Discriminator#variantOf(Object)}的返回值对应
+     */
+    public <T> VastMultiTypeAdapter register(Class<T> type, int variant, @LayoutRes int layoutId, VastBinder<T> binder) {
+        TypeEntry entry = obtainEntry(type);
+        if (null != entry.registration) {
+            throw new IllegalStateException(type.getName() + " is registered without a discriminator");
+        }
+        if (null == entry.variants) {
+            entry.variants = new SparseArray<>();
+        }
+        entry.variants.put(variant, addRegistration(layoutId, binder));
+        return this;
+    }
+
+    /**
+     * 设置同一数据类型下区分不同布局的方式
+     */
+    public <T> VastMultiTypeAdapter setDiscriminator(Class<T> type, Discriminator<T> discriminator) {
+        TypeEntry entry = obtainEntry(type);
+        if (null != entry.registration) {
+            throw new IllegalStateException(type.getName() + " is registered without a discriminator");
+        }
+        entry.discriminator = discriminator;
+        return this;
+    }
+
+    /**
+     * 设置数据为null时的占位布局，用于{@link VastDataSource}尚未读取的位置
+     *
+     * @param binder 占位绑定器，绑定时数据为null，可为空
+     */
+    public VastMultiTypeAdapter setPlaceholder(@LayoutRes int layoutId, VastBinder<Object> binder) {
+        if (null != mPlaceholder) {
+            throw new IllegalStateException("placeholder is already set");
+        }
+        mPlaceholder = addRegistration(layoutId, binder);
+        return this;
+    }
+
+    @Override
+    public int getItemViewIndex(int position) {
+        return registrationOf(getData(getDataPosition(position))).layoutIndex;
+    }
+
+    /**
+     * 同一布局注册了多个绑定器时依次回调，Holder可能由其中任意一个绑定
+     */
+    @Override
+    public void onCreateHolder(VastHolder holder) {
+        for (int i = 0, size = mRegistrations.size(); i < size; i++) {
+            Registration registration = mRegistrations.get(i);
+            if (registration.layoutIndex == holder.itemViewIndex && null != registration.binder
+                    && !isBinderCalled(registration.binder, holder.itemViewIndex, i)) {
+                registration.binder.onCreateHolder(holder);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final void bindHolder(VastHolder holder, Object data, int position) {
+        VastBinder binder = registrationOf(data).binder;
+        if (null != binder) {
+            binder.bind(holder, data, position);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final void bindHolder(VastHolder holder, Object data, int position, List<Object> payloads) {
+        VastBinder binder = registrationOf(data).binder;
+        if (null != binder) {
+            binder.bind(holder, data, position, payloads);
+        }
+    }
+
+    /**
+     * 获取数据对应的注册
+     */
+    private Registration registrationOf(Object item) {
+        if (null == item) {
+            if (null == mPlaceholder) {
+                throw new IllegalStateException("data is null, set a placeholder layout through setPlaceholder");
+            }
+            return mPlaceholder;
+        }
+        TypeEntry entry = resolve(item.getClass());
+        if (null == entry.discriminator) {
+            if (null == entry.registration) {
+                //只注册了区分值而未设置区分方式
+                throw new IllegalStateException(entry.type.getName()
+                        + " is registered with variants, set a discriminator through setDiscriminator");
+            }
+            return entry.registration;
+        }
+        @SuppressWarnings("unchecked")
+        int variant = ((Discriminator<Object>) entry.discriminator).variantOf(item);
+        Registration registration = null == entry.variants ? null : entry.variants.get(variant);
+        if (null == registration) {
+            throw new IllegalStateException("no binder registered for " + item.getClass().getName()
+                    + " with variant " + variant);
+        }
+        return registration;
+    }
+
+    /**
+     * 同一绑定器以同一布局注册多次时只回调一次
+     */
+    private boolean isBinderCalled(VastBinder<?> binder, int layoutIndex, int end) {
+        for (int i = 0; i < end; i++) {
+            Registration registration = mRegistrations.get(i);
+            if (registration.binder == binder && registration.layoutIndex == layoutIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TypeEntry obtainEntry(Class<?> type) {
+        TypeEntry entry = mRegistered.get(type);
+        if (null == entry) {
+            entry = new TypeEntry(type);
+            mRegistered.put(type, entry);
+            mResolved.clear();
+        }
+        return entry;
+    }
+
+    /**
+     * 添加注册，已注册过的布局沿用原有的布局下标
+     */
+    private Registration addRegistration(int layoutId, VastBinder<?> binder) {
+        int layoutIndex = mLayoutIndexes.get(layoutId, -1);
+        if (layoutIndex < 0) {
+            layoutIndex = addLayoutId(layoutId);
+            mLayoutIndexes.put(layoutId, layoutIndex);
+        }
+        Registration registration = new Registration(layoutIndex, binder);
+        mRegistrations.add(registration);
+        return registration;
+    }
+
+    /**
+     * 查找数据类型对应的注册类型，沿父类链依次查找自身及实现的接口，接口按声明顺序深度优先查找父接口
+     */
+    private TypeEntry resolve(Class<?> type) {
+        TypeEntry entry = mResolved.get(type);
+        if (null != entry) {
+            return entry;
+        }
+        for (Class<?> c = type; null != c && null == entry; c = c.getSuperclass()) {
+            entry = mRegistered.get(c);
+            if (null == entry) {
+                entry = resolveInterfaces(c);
+            }
+        }
+        if (null == entry) {
+            throw new IllegalStateException("no binder registered for " + type.getName());
+        }
+        mResolved.put(type, entry);
+        return entry;
+    }
+
+    private TypeEntry resolveInterfaces(Class<?> type) {
+        for (Class<?> i : type.getInterfaces()) {
+            TypeEntry entry = mRegistered.get(i);
+            if (null == entry) {
+                entry = resolveInterfaces(i);
+            }
+            if (null != entry) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 同一数据类型下区分布局
+     */
+    public interface Discriminator<T> {
+
+        /**
+         * 获取数据的区分值
+         */
+        int variantOf(T item);
+    }
+
+    /**
+     * 已注册的数据类型
+     */
+    private static class TypeEntry {
+
+        /**
+         * 注册的数据类型
+         */
+        final Class<?> type;
+
+        /**
+         * 无区分方式时的注册
+         */
+        Registration registration;
+
+        Discriminator<?> discriminator;
+
+        /**
+         * 区分值到注册
+         */
+        SparseArray<Registration> variants;
+
+        TypeEntry(Class<?> type) {
+            this.type = type;
+        }
+    }
+
+    /**
+     * 布局与绑定器的一次注册
+     */
+    private static class Registration {
+
+        final int layoutIndex;
+
+        final VastBinder binder;
+
+        Registration(int layoutIndex, VastBinder<?> binder) {
+            this.layoutIndex = layoutIndex;
+            this.binder = binder;
+        }
+    }
+}
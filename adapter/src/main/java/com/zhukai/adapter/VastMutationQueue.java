@@ -0,0 +1,276 @@
+package com.zhukai.adapter;
+
+import android.view.Choreographer;
+
+import androidx.annotation.MainThread;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 数据变更队列
+ * <p>
+ * 任意线程提交的增删改移操作先进入队列，在主线程的下一帧统一应用到数据列表，
+ * 同一帧内相邻的插入、移除与变化由{@link VastUpdateCoalescer}合并为尽量少的区间通知;
+ * 下标按提交顺序依次解释，即以前面操作完成后的列表为准;追加的末尾下标与越界校验在主线程应用时按当时的列表确定，
+ * 调用方直接修改列表后的数据总量同样生效，越界时分发已应用的变化后抛出IndexOutOfBoundsException，丢弃其余操作.
+ * 目标有进行中的差异计算时暂不应用，待新列表生效后再应用到新列表上.
+ *
+ * @author zhukai
+ */
+final class VastMutationQueue<D> implements Choreographer.FrameCallback {
+
+    private static final int OP_INSERT = 1;
+
+    private static final int OP_REMOVE = 2;
+
+    private static final int OP_CHANGE = 3;
+
+    private static final int OP_MOVE = 4;
+
+    /**
+     * 追加到列表末尾时使用的下标，应用时转换为实际下标
+     */
+    private static final int POSITION_END = -1;
+
+    private final Target<D> mTarget;
+
+    private final VastUpdateCoalescer mCoalescer;
+
+    /**
+     * 提交与应用之间的锁，保护mPending与mScheduled
+     */
+    private final Object mLock = new Object();
+
+    /**
+     * 尚未应用的操作
+     */
+    private ArrayList<Mutation<D>> mPending = new ArrayList<>();
+
+    /**
+     * 应用中的操作，与mPending交替使用
+     */
+    private ArrayList<Mutation<D>> mApplying = new ArrayList<>();
+
+    /**
+     * 是否已安排下一帧应用
+     */
+    private boolean mScheduled;
+
+    /**
+     * 后台线程提交时，切换到主线程后再注册帧回调
+     */
+    private final Runnable mScheduleTask = new Runnable() {
+        @Override
+        public void run() {
+            Choreographer.getInstance().postFrameCallback(VastMutationQueue.this);
+        }
+    };
+
+    VastMutationQueue(Target<D> target) {
+        this.mTarget = target;
+        this.mCoalescer = new VastUpdateCoalescer(target);
+    }
+
+    void insert(int position, D item) {
+        enqueue(OP_INSERT, position, 1, Collections.singletonList(item), null);
+    }
+
+    void insertAll(int position, Collection<? extends D> items) {
+        //复制一份，提交后调用方修改原集合不影响本次操作
+        enqueue(OP_INSERT, position, items.size(), new ArrayList<>(items), null);
+    }
+
+    void append(D item) {
+        insert(POSITION_END, item);
+    }
+
+    void appendAll(Collection<? extends D> items) {
+        insertAll(POSITION_END, items);
+    }
+
+    void remove(int position, int count) {
+        enqueue(OP_REMOVE, position, count, null, null);
+    }
+
+    void set(int position, D item, Object payload) {
+        enqueue(OP_CHANGE, position, 1, Collections.singletonList(item), payload);
+    }
+
+    void move(int fromPosition, int toPosition) {
+        enqueue(OP_MOVE, fromPosition, toPosition, null, null);
+    }
+
+    /**
+     * 是否有尚未应用的操作
+     */
+    boolean hasPending() {
+        synchronized (mLock) {
+            return !mPending.isEmpty();
+        }
+    }
+
+    /**
+     * 数据被整体替换，丢弃尚未应用的操作
+     */
+    void clear() {
+        synchronized (mLock) {
+            mPending.clear();
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        apply();
+    }
+
+    /**
+     * 立即应用队列中的全部操作，目标有进行中的差异计算时仍保留在队列中
+     */
+    @MainThread
+    void flush() {
+        Choreographer.getInstance().removeFrameCallback(this);
+        apply();
+    }
+
+    private void enqueue(int op, int position, int count, List<? extends D> items, Object payload) {
+        //与列表长度无关的错误在调用线程抛出
+        if (position < 0 && position != POSITION_END) {
+            throw new IndexOutOfBoundsException("Index: " + position);
+        }
+        if (count < 0) {
+            throw new IndexOutOfBoundsException(op == OP_MOVE ? "Index: " + count : "Count: " + count);
+        }
+        boolean schedule;
+        synchronized (mLock) {
+            mPending.add(new Mutation<D>(op, position, count, items, payload));
+            schedule = !mScheduled;
+            mScheduled = true;
+        }
+        if (schedule) {
+            if (VastExecutors.isMainThread()) {
+                Choreographer.getInstance().postFrameCallback(this);
+            } else {
+                VastExecutors.postMain(mScheduleTask);
+            }
+        }
+    }
+
+    private static void checkRange(int index, int min, int max, int size) {
+        if (index < min || index > max) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private void apply() {
+        ArrayList<Mutation<D>> mutations;
+        synchronized (mLock) {
+            //先复位，应用期间新提交的操作会安排到下一帧
+            mScheduled = false;
+            if (mPending.isEmpty() || !mTarget.isReady()) {
+                //差异计算完成后由目标再次调用flush
+                return;
+            }
+            mutations = mPending;
+            mPending = mApplying;
+            mApplying = mutations;
+        }
+        List<D> data = mTarget.getMutableData();
+        try {
+            for (int i = 0, size = mutations.size(); i < size; i++) {
+                applyMutation(data, mutations.get(i));
+            }
+        } finally {
+            //越界时仍分发已应用的变化，保持通知与列表一致
+            mutations.clear();
+            mCoalescer.dispatch();
+        }
+    }
+
+    /**
+     * 按当前列表解析末尾下标并校验后应用
+     */
+    private void applyMutation(List<D> data, Mutation<D> mutation) {
+        int size = data.size();
+        int position = mutation.position;
+        switch (mutation.op) {
+            case OP_INSERT:
+                if (position == POSITION_END) {
+                    position = size;
+                }
+                checkRange(position, 0, size, size);
+                if (mutation.count == 1) {
+                    data.add(position, mutation.items.get(0));
+                } else {
+                    data.addAll(position, mutation.items);
+                }
+                mCoalescer.insert(position, mutation.count);
+                break;
+            case OP_REMOVE:
+                checkRange(position, 0, size, size);
+                checkRange(position + mutation.count, position, size, size);
+                if (mutation.count == 1) {
+                    data.remove(position);
+                } else {
+                    data.subList(position, position + mutation.count).clear();
+                }
+                mCoalescer.remove(position, mutation.count);
+                break;
+            case OP_CHANGE:
+                checkRange(position, 0, size - 1, size);
+                data.set(position, mutation.items.get(0));
+                mCoalescer.change(position, 1, mutation.payload);
+                break;
+            default:
+                //count字段保存目标下标
+                checkRange(position, 0, size - 1, size);
+                checkRange(mutation.count, 0, size - 1, size);
+                data.add(mutation.count, data.remove(position));
+                mCoalescer.move(position, mutation.count);
+                break;
+        }
+    }
+
+    /**
+     * 变更的应用目标，按数据下标接收合并后的通知
+     */
+    interface Target<D> extends ListUpdateCallback {
+
+        /**
+         * 获取当前的数据列表，操作直接应用在该列表上
+         */
+        List<D> getMutableData();
+
+        /**
+         * 是否可以应用变更，有进行中的差异计算时返回false
+         */
+        boolean isReady();
+    }
+
+    private static final class Mutation<D> {
+
+        final int op;
+
+        final int position;
+
+        /**
+         * 条目数量，移动操作时为目标下标
+         */
+        final int count;
+
+        final List<? extends D> items;
+
+        final Object payload;
+
+        Mutation(int op, int position, int count, List<? extends D> items, Object payload) {
+            this.op = op;
+            this.position = position;
+            this.count = count;
+            this.items = items;
+            this.payload = payload;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.zhukai.adapter;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.WorkerThread;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 分页加载适配器
+ * <p>
+ * 数据按页在后台线程加载，只在内存中保留当前位置附近的若干页，远离当前位置的页会被释放;
+ * 数据总量固定，未加载的位置以null作为占位数据回调至{@link #bindHolder(VastHolder, Object, int)}，
+ * 加载完成后局部刷新对应区间，条目位置始终保持不变.
+ * 分页缓存由{@link VastCachedDataSource}实现：只有绑定条目时才会加载页，{@link #getData(int)}只读取已加载的数据;
+ * 显示中的页不会被释放，加载失败的页在仍有条目显示时按退避间隔重试.
+ *
+ * @author zhukai
+ */
+public abstract class VastPagedAdapter<D> extends VastAdapter<D> {
+
+    /**
+     * 默认在内存中保留的最大页数
+     */
+    private static final int MAX_PAGES_DEFAULT = 5;
+
+    /**
+     * 分页加载器对应的读取接口
+     */
+    private final PageCursor<D> mCursor;
+
+    /**
+     * 分页缓存
+     */
+    private final VastCachedDataSource<D> mPages;
+
+    /**
+     * @param pageSize   每页数据量
+     * @param pageLoader 分页加载器
+     * @param layoutIds  布局id
+     */
+    public VastPagedAdapter(int pageSize, PageLoader<D> pageLoader, @LayoutRes int... layoutIds) {
+        this(new PageCursor<>(pageLoader), pageSize, layoutIds);
+    }
+
+    private VastPagedAdapter(PageCursor<D> cursor, int pageSize, int... layoutIds) {
+        this(cursor, new VastCachedDataSource<>(cursor, pageSize, MAX_PAGES_DEFAULT), layoutIds);
+    }
+
+    private VastPagedAdapter(PageCursor<D> cursor, VastCachedDataSource<D> pages, int... layoutIds) {
+        super(pages, layoutIds);
+        this.mCursor = cursor;
+        this.mPages = pages;
+    }
+
+    /**
+     * 设置数据总量，已加载的页将被清空
+     */
+    public void setTotalCount(int totalCount) {
+        mCursor.totalCount = Math.max(totalCount, 0);
+        mPages.reset(mCursor.totalCount);
+    }
+
+    /**
+     * 设置在内存中保留的最大页数，至少为3页
+     */
+    public void setMaxPages(int maxPages) {
+        mPages.setMaxCachedPages(maxPages);
+    }
+
+    /**
+     * 设置加载线程，默认使用共用后台线程池
+     */
+    public void setLoadExecutor(Executor executor) {
+        mPages.setExecutor(executor);
+    }
+
+    /**
+     * 清空已加载的页并重新加载，进行中的加载结果将被丢弃
+     */
+    public void invalidate() {
+        mPages.reset(mCursor.totalCount);
+    }
+
+    /**
+     * 分页模式下数据由{@link PageLoader}提供，不支持直接提交列表
+     */
+    @Override
+    public void submitList(List<D> newList) {
+        throw new UnsupportedOperationException("VastPagedAdapter loads data through its PageLoader");
+    }
+
+    @Override
+    void checkDataMutable() {
+        throw new UnsupportedOperationException("VastPagedAdapter loads data through its PageLoader");
+    }
+
+    /**
+     * 以分页加载器读取数据
+     */
+    private static final class PageCursor<D> implements VastCursorSource<D> {
+
+        private final PageLoader<D> mPageLoader;
+
+        /**
+         * 数据总量，在主线程设置
+         */
+        volatile int totalCount;
+
+        PageCursor(PageLoader<D> pageLoader) {
+            this.mPageLoader = pageLoader;
+        }
+
+        @Override
+        public int getCount() {
+            return totalCount;
+        }
+
+        @Override
+        public List<D> read(int offset, int limit) {
+            return mPageLoader.loadPage(offset / limit, limit);
+        }
+    }
+
+    /**
+     * 分页加载器
+     */
+    public interface PageLoader<D> {
+
+        /**
+         * 加载指定页的数据，在后台线程调用
+         *
+         * @param pageIndex 页下标，从0开始
+         * @param pageSize  每页数据量
+         * @return 该页的数据，加载失败时可返回null，之后按退避间隔或再次绑定该页时重新加载
+         */
+        @WorkerThread
+        List<D> loadPage(int pageIndex, int pageSize);
+    }
+}
@@ -0,0 +1,225 @@
+package com.zhukai.adapter;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * 布局预加载池
+ * <p>
+ * 在主线程空闲时于后台线程按布局下标预先inflate指定数量的View，创建Holder时优先取用，
+ * 没有可用View时回退为同步inflate.
+ * 后台inflate以未挂载的FrameLayout作为父布局，不访问RecyclerView及其LayoutManager;
+ * 得到的LayoutParams在主线程添加到RecyclerView时由其转换.
+ *
+ * @author zhukai
+ */
+public class VastPreInflater {
+
+    private static final String TAG = "VastPreInflater";
+
+    /**
+     * 布局id
+     */
+    private final int[] mLayoutIds;
+
+    /**
+     * 每个布局下标预加载的目标数量，主线程设置，后台线程读取及在失败时清零
+     */
+    private final AtomicIntegerArray mTargetCounts;
+
+    /**
+     * 每个布局下标已预加载的View
+     */
+    private final ConcurrentLinkedQueue<View>[] mPools;
+
+    /**
+     * 命中次数，仅在主线程读写
+     */
+    private final int[] mHitCounts;
+
+    /**
+     * 未命中次数，仅在主线程读写
+     */
+    private final int[] mMissCounts;
+
+    /**
+     * 后台inflate任务是否正在执行
+     */
+    private final AtomicBoolean mFilling = new AtomicBoolean();
+
+    /**
+     * 后台线程使用的独立LayoutInflater，未绑定宿主时为空
+     */
+    private volatile LayoutInflater mInflater;
+
+    /**
+     * 后台inflate使用的父布局，只用于生成LayoutParams，不挂载到界面;仅在填充任务中读写
+     */
+    private ViewGroup mInflateParent;
+
+    /**
+     * 空闲回调是否已注册
+     */
+    private boolean mIdleScheduled;
+
+    /**
+     * 主线程空闲时开始后台填充
+     */
+    private final MessageQueue.IdleHandler mIdleHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            mIdleScheduled = false;
+            fill();
+            return false;
+        }
+    };
+
+    /**
+     * 后台填充任务
+     */
+    private final Runnable mFillTask = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                for (int i = 0; i < mLayoutIds.length; i++) {
+                    while (mPools[i].size() < mTargetCounts.get(i)) {
+                        LayoutInflater inflater = mInflater;
+                        if (null == inflater) {
+                            return;
+                        }
+                        if (null == mInflateParent || mInflateParent.getContext() != inflater.getContext()) {
+                            mInflateParent = new FrameLayout(inflater.getContext());
+                        }
+                        View view = inflateSafely(inflater, i, mInflateParent);
+                        if (null == view) {
+                            break;
+                        }
+                        mPools[i].offer(view);
+                    }
+                }
+            } finally {
+                mFilling.set(false);
+            }
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    VastPreInflater(int[] layoutIds) {
+        this.mLayoutIds = layoutIds;
+        this.mTargetCounts = new AtomicIntegerArray(layoutIds.length);
+        this.mPools = new ConcurrentLinkedQueue[layoutIds.length];
+        this.mHitCounts = new int[layoutIds.length];
+        this.mMissCounts = new int[layoutIds.length];
+        for (int i = 0; i < layoutIds.length; i++) {
+            mPools[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * 设置布局下标对应的预加载数量
+     */
+    void setCount(int layoutIndex, int count) {
+        mTargetCounts.set(layoutIndex, Math.max(count, 0));
+        scheduleFill();
+    }
+
+    /**
+     * 绑定宿主并在空闲时开始预加载，宿主只用于获取Context
+     */
+    void start(ViewGroup parent) {
+        mInflater = LayoutInflater.from(parent.getContext()).cloneInContext(parent.getContext());
+        scheduleFill();
+    }
+
+    /**
+     * 解除宿主并释放已预加载的View
+     */
+    void stop() {
+        mInflater = null;
+        if (mIdleScheduled) {
+            Looper.myQueue().removeIdleHandler(mIdleHandler);
+            mIdleScheduled = false;
+        }
+        for (ConcurrentLinkedQueue<View> pool : mPools) {
+            pool.clear();
+        }
+    }
+
+    /**
+     * 取出预加载的View，并统计命中情况
+     *
+     * @return 没有可用View时返回null
+     */
+    View obtain(int layoutIndex) {
+        View view = mPools[layoutIndex].poll();
+        if (null == view) {
+            mMissCounts[layoutIndex]++;
+        } else {
+            mHitCounts[layoutIndex]++;
+            scheduleFill();
+        }
+        return view;
+    }
+
+    /**
+     * 注册主线程空闲回调
+     */
+    private void scheduleFill() {
+        if (!mIdleScheduled && null != mInflater) {
+            mIdleScheduled = true;
+            Looper.myQueue().addIdleHandler(mIdleHandler);
+        }
+    }
+
+    /**
+     * 提交后台填充任务，同一时间只有一个任务执行
+     */
+    private void fill() {
+        if (null != mInflater && mFilling.compareAndSet(false, true)) {
+            VastExecutors.background().execute(mFillTask);
+        }
+    }
+
+    /**
+     * 后台inflate，部分View不支持在非主线程创建，失败后不再预加载该布局
+     */
+    private View inflateSafely(LayoutInflater inflater, int layoutIndex, ViewGroup parent) {
+        try {
+            return inflater.inflate(mLayoutIds[layoutIndex], parent, false);
+        } catch (RuntimeException e) {
+            Log.w(TAG, "failed to pre-inflate layout index " + layoutIndex + ", disabled", e);
+            mTargetCounts.set(layoutIndex, 0);
+            return null;
+        }
+    }
+
+    /**
+     * 获取布局下标的命中次数
+     */
+    public int getHitCount(int layoutIndex) {
+        return mHitCounts[layoutIndex];
+    }
+
+    /**
+     * 获取布局下标的未命中次数
+     */
+    public int getMissCount(int layoutIndex) {
+        return mMissCounts[layoutIndex];
+    }
+
+    /**
+     * 获取布局下标当前可用的预加载View数量
+     */
+    public int getPooledCount(int layoutIndex) {
+        return mPools[layoutIndex].size();
+    }
+}
@@ -0,0 +1,73 @@
+package com.zhukai.adapter;
+
+import android.util.SparseIntArray;
+
+import androidx.annotation.LayoutRes;
+import androidx.recyclerview.widget.RecyclerView;
+
+/**
+ * 多个适配器共用的回收池
+ * <p>
+ * 配合{@link VastAdapter#setSharedViewPool(VastRecycledViewPool)}使用，此时数据条目的viewType即为布局资源id，
+ * 使用相同布局的适配器之间可复用Holder;设置了Holder工厂的布局另行分配viewType，只在使用同一工厂的适配器之间复用.
+ *
+ * @author zhukai
+ */
+public class VastRecycledViewPool extends RecyclerView.RecycledViewPool {
+
+    /**
+     * 默认的单类型回收容量，与RecyclerView保持一致
+     */
+    private static final int DEFAULT_CAPACITY = 5;
+
+    /**
+     * 未单独设置的viewType使用的回收容量
+     */
+    private final int mDefaultCapacity;
+
+    /**
+     * 已设置容量的viewType
+     */
+    private final SparseIntArray mCapacities = new SparseIntArray();
+
+    public VastRecycledViewPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param defaultCapacity 未单独设置的viewType使用的回收容量
+     */
+    public VastRecycledViewPool(int defaultCapacity) {
+        this.mDefaultCapacity = defaultCapacity;
+    }
+
+    /**
+     * 设置布局对应的回收容量，需在Holder进入回收池之前设置
+     * <p>
+     * 设置了Holder工厂的布局同样适用.
+     *
+     * @param layoutId 布局资源id
+     * @param capacity 最大回收数量
+     */
+    public VastRecycledViewPool setCapacity(@LayoutRes int layoutId, int capacity) {
+        setMaxRecycledViews(layoutId, capacity);
+        return this;
+    }
+
+    @Override
+    public void setMaxRecycledViews(int viewType, int max) {
+        mCapacities.put(viewType, max);
+        super.setMaxRecycledViews(viewType, max);
+    }
+
+    @Override
+    public void putRecycledView(RecyclerView.ViewHolder scrap) {
+        int viewType = scrap.getItemViewType();
+        if (mCapacities.indexOfKey(viewType) < 0) {
+            //工厂布局沿用按布局资源id设置的容量
+            int layoutId = VastAdapter.layoutIdOfViewType(viewType);
+            setMaxRecycledViews(viewType, mCapacities.get(layoutId, mDefaultCapacity));
+        }
+        super.putRecycledView(scrap);
+    }
+}
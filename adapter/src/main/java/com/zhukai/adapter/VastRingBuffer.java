@@ -0,0 +1,82 @@
+package com.zhukai.adapter;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * 定长环形列表
+ * <p>
+ * 只支持在末尾追加，容量已满时淘汰最早的条目;按下标读取为O(1)，追加与淘汰不移动其他条目.
+ *
+ * @author zhukai
+ */
+final class VastRingBuffer<E> extends AbstractList<E> implements RandomAccess {
+
+    private final Object[] mItems;
+
+    /**
+     * 最早条目在数组中的下标
+     */
+    private int mHead;
+
+    private int mSize;
+
+    VastRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        mItems = new Object[capacity];
+    }
+
+    int capacity() {
+        return mItems.length;
+    }
+
+    /**
+     * 追加到末尾
+     *
+     * @return 容量已满时淘汰最早的条目并返回true
+     */
+    boolean append(E item) {
+        int capacity = mItems.length;
+        if (mSize < capacity) {
+            mItems[(mHead + mSize) % capacity] = item;
+            mSize++;
+            return false;
+        }
+        mItems[mHead] = item;
+        mHead = (mHead + 1) % capacity;
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= mSize) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + mSize);
+        }
+        return (E) mItems[(mHead + index) % mItems.length];
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E old = get(index);
+        mItems[(mHead + index) % mItems.length] = element;
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < mSize; i++) {
+            mItems[(mHead + i) % mItems.length] = null;
+        }
+        mHead = 0;
+        mSize = 0;
+        modCount++;
+    }
+}
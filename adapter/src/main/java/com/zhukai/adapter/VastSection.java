@@ -0,0 +1,90 @@
+package com.zhukai.adapter;
+
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 数据分组
+ * <p>
+ * 按顺序覆盖数据列表中连续的一段数据，并可拥有独立的头部与尾部View;
+ * 通过{@link VastAdapter#setSections(List)}设置，修改后需重新设置才会生效;
+ * 设置后适配器中的数据数量随数据增删调整，不回写到本对象，通过{@link VastAdapter#getSectionDataCount(int)}获取.
+ *
+ * @author zhukai
+ */
+public class VastSection {
+
+    /**
+     * 分组内的数据数量
+     */
+    private int mDataCount;
+
+    /**
+     * 分组头部View
+     */
+    private final List<View> mHeaderViews = new ArrayList<>();
+
+    /**
+     * 分组尾部View
+     */
+    private final List<View> mFooterViews = new ArrayList<>();
+
+    /**
+     * @param dataCount 分组内的数据数量
+     */
+    public VastSection(int dataCount) {
+        this.mDataCount = Math.max(dataCount, 0);
+    }
+
+    /**
+     * 设置分组内的数据数量
+     */
+    public VastSection setDataCount(int dataCount) {
+        this.mDataCount = Math.max(dataCount, 0);
+        return this;
+    }
+
+    /**
+     * 获取分组内的数据数量
+     */
+    public int getDataCount() {
+        return mDataCount;
+    }
+
+    /**
+     * 添加分组头部View
+     */
+    public VastSection addHeaderView(View view) {
+        if (null != view) {
+            mHeaderViews.add(view);
+        }
+        return this;
+    }
+
+    /**
+     * 添加分组尾部View
+     */
+    public VastSection addFooterView(View view) {
+        if (null != view) {
+            mFooterViews.add(view);
+        }
+        return this;
+    }
+
+    /**
+     * 获取分组头部View
+     */
+    public List<View> getHeaderViews() {
+        return Collections.unmodifiableList(mHeaderViews);
+    }
+
+    /**
+     * 获取分组尾部View
+     */
+    public List<View> getFooterViews() {
+        return Collections.unmodifiableList(mFooterViews);
+    }
+}
@@ -0,0 +1,282 @@
+package com.zhukai.adapter;
+
+import java.util.Arrays;
+
+/**
+ * adapter下标分段表
+ * <p>
+ * 将adapter下标划分为连续的段(Header/Footer、数据、空缺view)，以基本类型数组保存每段的起始位置，
+ * 仅在结构变化后重建;查询时优先命中上一次访问的段，顺序滑动时为O(1)，否则二分查找.
+ *
+ * @author zhukai
+ */
+final class VastSegmentTable {
+
+    /**
+     * 不在任何段内
+     */
+    static final int KIND_NONE = -1;
+
+    /**
+     * Header/Footer段
+     */
+    static final int KIND_FIXED = 0;
+
+    /**
+     * 数据段
+     */
+    static final int KIND_DATA = 1;
+
+    /**
+     * 空缺view段
+     */
+    static final int KIND_VACANCY = 2;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * 段数量
+     */
+    private int mSegmentCount;
+
+    /**
+     * 每段的起始adapter下标，mStarts[mSegmentCount]为条目总数
+     */
+    private int[] mStarts = new int[INITIAL_CAPACITY + 1];
+
+    /**
+     * 每段的类型
+     */
+    private int[] mKinds = new int[INITIAL_CAPACITY];
+
+    /**
+     * 每段之前的数据总数，数据段中即为首条数据的下标
+     */
+    private int[] mDataBefore = new int[INITIAL_CAPACITY];
+
+    /**
+     * Header/Footer段在mFixedViewTypes中的起始下标
+     */
+    private int[] mFixedBase = new int[INITIAL_CAPACITY];
+
+    /**
+     * 按adapter顺序排列的Header/Footer viewType
+     */
+    private int[] mFixedViewTypes = new int[INITIAL_CAPACITY];
+
+    /**
+     * Header/Footer总数
+     */
+    private int mFixedCount;
+
+    /**
+     * 数据总数
+     */
+    private int mDataCount;
+
+    /**
+     * 最后一段数据之后的adapter下标，用于定位追加数据的位置
+     */
+    private int mDataEnd;
+
+    /**
+     * 上一次命中的段
+     */
+    private int mLastSegment;
+
+    /**
+     * 清空分段
+     */
+    void clear() {
+        mSegmentCount = 0;
+        mStarts[0] = 0;
+        mFixedCount = 0;
+        mDataCount = 0;
+        mDataEnd = 0;
+        mLastSegment = 0;
+    }
+
+    /**
+     * 追加一个Header/Footer，与前一个Header/Footer段合并
+     */
+    void appendFixed(int viewType) {
+        if (mFixedCount == mFixedViewTypes.length) {
+            mFixedViewTypes = Arrays.copyOf(mFixedViewTypes, mFixedCount * 2);
+        }
+        if (!isLastKind(KIND_FIXED)) {
+            appendSegment(KIND_FIXED);
+            mFixedBase[mSegmentCount - 1] = mFixedCount;
+        }
+        mFixedViewTypes[mFixedCount++] = viewType;
+        mStarts[mSegmentCount]++;
+    }
+
+    /**
+     * 追加一段数据，与前一个数据段合并
+     */
+    void appendData(int count) {
+        if (count > 0) {
+            if (!isLastKind(KIND_DATA)) {
+                appendSegment(KIND_DATA);
+            }
+            mStarts[mSegmentCount] += count;
+            mDataCount += count;
+        }
+        mDataEnd = mStarts[mSegmentCount];
+    }
+
+    /**
+     * 追加空缺view
+     */
+    void appendVacancy() {
+        appendSegment(KIND_VACANCY);
+        mStarts[mSegmentCount]++;
+    }
+
+    private boolean isLastKind(int kind) {
+        return mSegmentCount > 0 && mKinds[mSegmentCount - 1] == kind;
+    }
+
+    private void appendSegment(int kind) {
+        if (mSegmentCount == mKinds.length) {
+            int capacity = mSegmentCount * 2;
+            mStarts = Arrays.copyOf(mStarts, capacity + 1);
+            mKinds = Arrays.copyOf(mKinds, capacity);
+            mDataBefore = Arrays.copyOf(mDataBefore, capacity);
+            mFixedBase = Arrays.copyOf(mFixedBase, capacity);
+        }
+        int start = mStarts[mSegmentCount];
+        mKinds[mSegmentCount] = kind;
+        mDataBefore[mSegmentCount] = mDataCount;
+        mSegmentCount++;
+        mStarts[mSegmentCount] = start;
+    }
+
+    /**
+     * 获取条目总数
+     */
+    int getItemCount() {
+        return mStarts[mSegmentCount];
+    }
+
+    /**
+     * 是否只有空缺view
+     */
+    boolean isVacancy() {
+        return mSegmentCount == 1 && mKinds[0] == KIND_VACANCY;
+    }
+
+    /**
+     * 查找adapter下标所在的段
+     *
+     * @return 不在范围内时返回-1
+     */
+    private int segmentOf(int position) {
+        if (position < 0 || position >= mStarts[mSegmentCount]) {
+            return -1;
+        }
+        int segment = mLastSegment;
+        if (segment < mSegmentCount && position >= mStarts[segment] && position < mStarts[segment + 1]) {
+            return segment;
+        }
+        int low = 0;
+        int high = mSegmentCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mStarts[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        mLastSegment = low;
+        return low;
+    }
+
+    /**
+     * 获取adapter下标对应的段类型
+     */
+    int kindAt(int position) {
+        int segment = segmentOf(position);
+        return segment < 0 ? KIND_NONE : mKinds[segment];
+    }
+
+    /**
+     * 获取Header/Footer的viewType，调用前需确认为{@link #KIND_FIXED}
+     */
+    int fixedViewTypeAt(int position) {
+        int segment = segmentOf(position);
+        return mFixedViewTypes[mFixedBase[segment] + position - mStarts[segment]];
+    }
+
+    /**
+     * 获取adapter下标对应的数据下标
+     *
+     * @return 非数据条目返回-1
+     */
+    int dataPositionAt(int position) {
+        int segment = segmentOf(position);
+        if (segment < 0 || mKinds[segment] != KIND_DATA) {
+            return -1;
+        }
+        return mDataBefore[segment] + position - mStarts[segment];
+    }
+
+    /**
+     * 获取adapter下标之前的数据数量
+     */
+    int dataCountBefore(int position) {
+        if (position >= mStarts[mSegmentCount]) {
+            return mDataCount;
+        }
+        int segment = segmentOf(position);
+        if (segment < 0) {
+            return 0;
+        }
+        int before = mDataBefore[segment];
+        return mKinds[segment] == KIND_DATA ? before + position - mStarts[segment] : before;
+    }
+
+    /**
+     * 获取数据下标对应的adapter下标，数据下标等于数据总数时返回追加位置
+     */
+    int adapterPositionOf(int dataPosition) {
+        if (dataPosition >= mDataCount) {
+            return mDataEnd + dataPosition - mDataCount;
+        }
+        int segment = dataSegmentOf(dataPosition);
+        return mStarts[segment] + dataPosition - mDataBefore[segment];
+    }
+
+    /**
+     * 获取从数据下标开始，在adapter中连续排列的数据数量
+     */
+    int dataRunLength(int dataPosition) {
+        if (dataPosition >= mDataCount) {
+            return Integer.MAX_VALUE;
+        }
+        int segment = dataSegmentOf(dataPosition);
+        return mStarts[segment + 1] - mStarts[segment] - (dataPosition - mDataBefore[segment]);
+    }
+
+    /**
+     * 查找数据下标所在的数据段
+     */
+    private int dataSegmentOf(int dataPosition) {
+        int low = 0;
+        int high = mSegmentCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (mDataBefore[mid] <= dataPosition) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        //数据数量相同的段中，最后一个为包含该数据的数据段或其后的非数据段
+        while (mKinds[low] != KIND_DATA) {
+            low--;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,343 @@
+package com.zhukai.adapter;
+
+import android.util.Log;
+
+import android.view.View;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.WorkerThread;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 列表快照
+ * <p>
+ * 以紧凑的二进制格式保存前若干条数据与滚动位置，冷启动时在首次布局前读取并直接显示，
+ * 真实数据加载完成后通过{@link VastAdapter#submitList(List)}以差异方式局部刷新.
+ * 条目的编码由{@link ItemCodec}提供;写入在后台线程以文件流完成，先写临时文件并同步到磁盘再替换，写入中断不会损坏已有快照.
+ * 只在替换文件时加锁，读取不会等待进行中的写入;删除后进行中的写入不再替换，快照不会重新出现.
+ * 保存时的滚动锚点取自第一个可见的数据条目，恢复数据后记录待应用的锚点，在关联RecyclerView后滚动到该位置.
+ *
+ * @author zhukai
+ */
+public final class VastSnapshot<D> {
+
+    private static final String TAG = "VastSnapshot";
+
+    /**
+     * 文件头标识
+     */
+    private static final int MAGIC = 0x56534E50;
+
+    /**
+     * 格式版本，与{@link ItemCodec#getVersion()}共同决定快照是否可读
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private final File mFile;
+
+    private final ItemCodec<D> mCodec;
+
+    /**
+     * 最多保存的数据量
+     */
+    private final int mMaxItems;
+
+    /**
+     * 写入线程，为空时使用共用后台线程池
+     */
+    private Executor mExecutor;
+
+    /**
+     * 最近一次请求写入或删除的序号，用于跳过已过期的写入，在锁内修改
+     */
+    private volatile int mWriteGeneration;
+
+    /**
+     * 快照文件被替换的次数，读取失败时据此判断文件是否已被新的写入替换，在锁内修改
+     */
+    private volatile int mReplaceCount;
+
+    /**
+     * 已恢复、尚未应用的滚动位置，数据下标，无待应用位置时为-1，只在主线程访问
+     */
+    private int mPendingAnchorPosition = -1;
+
+    private int mPendingAnchorOffset;
+
+    /**
+     * @param file     快照文件
+     * @param codec    条目编码
+     * @param maxItems 最多保存的数据量，通常为一屏多一些
+     */
+    public VastSnapshot(File file, ItemCodec<D> codec, int maxItems) {
+        this.mFile = file;
+        this.mCodec = codec;
+        this.mMaxItems = maxItems;
+    }
+
+    /**
+     * 设置写入线程，默认使用共用后台线程池
+     */
+    public void setExecutor(Executor executor) {
+        this.mExecutor = executor;
+    }
+
+    /**
+     * 最多保存的数据量
+     */
+    public int getMaxItems() {
+        return mMaxItems;
+    }
+
+    /**
+     * 删除快照文件，进行中的写入完成后不再替换
+     */
+    public synchronized void delete() {
+        mWriteGeneration++;
+        deleteFile();
+    }
+
+    /**
+     * 取适配器前若干条数据与第一个可见数据条目的位置，在后台线程写入
+     *
+     * @param rv 宿主RecyclerView，为空或非正向的LinearLayoutManager时锚点为第一条数据
+     */
+    @MainThread
+    void save(VastAdapter<D> adapter, RecyclerView rv) {
+        int count = Math.min(adapter.getDataCount(), mMaxItems);
+        List<D> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(adapter.getData(i));
+        }
+        int anchorPosition = 0;
+        int anchorOffset = 0;
+        RecyclerView.LayoutManager lm = null != rv ? rv.getLayoutManager() : null;
+        if (lm instanceof LinearLayoutManager && !((LinearLayoutManager) lm).getReverseLayout()) {
+            //取第一个可见的数据条目作为锚点
+            for (int i = 0, childCount = lm.getChildCount(); i < childCount; i++) {
+                View child = lm.getChildAt(i);
+                int position = adapter.toLocalPosition(lm.getPosition(child));
+                int dataPosition = position >= 0 && position < adapter.getItemCount() ? adapter.getDataPosition(position) : -1;
+                if (dataPosition >= 0) {
+                    anchorPosition = dataPosition;
+                    anchorOffset = ((LinearLayoutManager) lm).getOrientation() == LinearLayoutManager.VERTICAL
+                            ? lm.getDecoratedTop(child) - lm.getPaddingTop()
+                            : lm.getDecoratedLeft(child) - lm.getPaddingLeft();
+                    break;
+                }
+            }
+        }
+        write(items, Math.min(anchorPosition, Math.max(count - 1, 0)), anchorOffset);
+    }
+
+    /**
+     * 读取快照并提交给适配器，记录待应用的滚动位置
+     *
+     * @return 快照不可读或为空时返回false
+     */
+    @MainThread
+    boolean restore(VastAdapter<D> adapter) {
+        Content<D> content = read();
+        if (null == content || content.items.isEmpty()) {
+            return false;
+        }
+        //快照列表只读，复制一份以支持之后的增删改移
+        adapter.submitList(new ArrayList<>(content.items));
+        mPendingAnchorPosition = Math.min(content.anchorPosition, content.items.size() - 1);
+        mPendingAnchorOffset = content.anchorOffset;
+        return true;
+    }
+
+    /**
+     * 滚动到已恢复的位置
+     *
+     * @return 已应用或无待应用位置时返回true，未关联RecyclerView或LayoutManager时返回false
+     */
+    @MainThread
+    boolean applyAnchor(VastAdapter<D> adapter, RecyclerView rv) {
+        if (mPendingAnchorPosition < 0) {
+            return true;
+        }
+        if (null == rv || null == rv.getLayoutManager()) {
+            return false;
+        }
+        int position = adapter.toHostPosition(adapter.toAdapterPosition(mPendingAnchorPosition));
+        RecyclerView.LayoutManager lm = rv.getLayoutManager();
+        if (lm instanceof LinearLayoutManager) {
+            ((LinearLayoutManager) lm).scrollToPositionWithOffset(position, mPendingAnchorOffset);
+        } else {
+            lm.scrollToPosition(position);
+        }
+        mPendingAnchorPosition = -1;
+        return true;
+    }
+
+    /**
+     * 在后台线程写入快照，条目在写入完成前不应被修改
+     */
+    @MainThread
+    void write(final List<D> items, final int anchorPosition, final int anchorOffset) {
+        final int generation;
+        synchronized (this) {
+            generation = ++mWriteGeneration;
+        }
+        Executor executor = null != mExecutor ? mExecutor : VastExecutors.background();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (generation != mWriteGeneration) {
+                    return;
+                }
+                try {
+                    writeFile(generation, items, anchorPosition, anchorOffset);
+                } catch (IOException e) {
+                    Log.w(TAG, "failed to write " + mFile, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * 读取快照，文件不存在、版本不一致或已损坏时返回null
+     */
+    Content<D> read() {
+        if (!mFile.isFile()) {
+            return null;
+        }
+        int replaceCount = mReplaceCount;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(mFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readInt() != mCodec.getVersion()) {
+                return null;
+            }
+            int anchorPosition = in.readInt();
+            int anchorOffset = in.readInt();
+            int count = in.readInt();
+            if (count < 0 || count > mMaxItems) {
+                return null;
+            }
+            List<D> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                items.add(mCodec.decode(in));
+            }
+            return new Content<>(items, anchorPosition, anchorOffset);
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "discard unreadable snapshot " + mFile, e);
+            discard(replaceCount);
+            return null;
+        }
+    }
+
+    /**
+     * 丢弃无法读取的快照，读取期间已被新的写入替换时保留
+     */
+    private synchronized void discard(int replaceCount) {
+        if (replaceCount == mReplaceCount) {
+            deleteFile();
+        }
+    }
+
+    private void deleteFile() {
+        if (mFile.exists() && !mFile.delete()) {
+            Log.w(TAG, "failed to delete " + mFile);
+        }
+    }
+
+    /**
+     * 以文件流写入临时文件并同步到磁盘，只在替换时加锁，期间已有新的写入或删除时放弃替换
+     */
+    @WorkerThread
+    private void writeFile(int generation, List<D> items, int anchorPosition, int anchorOffset) throws IOException {
+        File parent = mFile.getAbsoluteFile().getParentFile();
+        if (null != parent && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("failed to create " + parent);
+        }
+        //并行的写入各自使用临时文件
+        File temp = new File(mFile.getPath() + "." + generation + ".tmp");
+        try {
+            try (FileOutputStream file = new FileOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(mCodec.getVersion());
+                out.writeInt(anchorPosition);
+                out.writeInt(anchorOffset);
+                out.writeInt(items.size());
+                for (D item : items) {
+                    mCodec.encode(item, out);
+                }
+                out.flush();
+                //落盘后再替换，替换后断电不会留下不完整的快照
+                file.getFD().sync();
+            }
+            synchronized (this) {
+                if (generation != mWriteGeneration) {
+                    return;
+                }
+                if (!temp.renameTo(mFile)) {
+                    throw new IOException("failed to replace " + mFile);
+                }
+                mReplaceCount++;
+            }
+        } finally {
+            if (temp.exists() && !temp.delete()) {
+                Log.w(TAG, "failed to delete " + temp);
+            }
+        }
+    }
+
+    /**
+     * 读取到的快照内容
+     */
+    static final class Content<D> {
+
+        final List<D> items;
+
+        /**
+         * 第一个可见条目的数据下标
+         */
+        final int anchorPosition;
+
+        /**
+         * 第一个可见条目距列表起始边缘的偏移
+         */
+        final int anchorOffset;
+
+        Content(List<D> items, int anchorPosition, int anchorOffset) {
+            this.items = Collections.unmodifiableList(items);
+            this.anchorPosition = anchorPosition;
+            this.anchorOffset = anchorOffset;
+        }
+    }
+
+    /**
+     * 条目编码
+     */
+    public interface ItemCodec<D> {
+
+        /**
+         * 编码版本，条目格式变化时递增，版本不一致的快照会被丢弃
+         */
+        int getVersion();
+
+        @WorkerThread
+        void encode(D item, DataOutput out) throws IOException;
+
+        D decode(DataInput in) throws IOException;
+    }
+}
@@ -0,0 +1,46 @@
+package com.zhukai.adapter;
+
+import androidx.recyclerview.widget.GridLayoutManager;
+
+/**
+ * GridLayoutManager兼容SpanSizeLookup
+ * <p>
+ * Header/Footer、空缺view及全宽数据占满整行，其余数据条目按数据下标交由原有的SpanSizeLookup计算;
+ * 开启span下标与分组下标缓存，跳转与滚动到指定位置时无需从0重新累计，结构变化时由适配器统一失效.
+ *
+ * @author zhukai
+ */
+final class VastSpanSizeLookup extends GridLayoutManager.SpanSizeLookup {
+
+    private final VastAdapter<?> mAdapter;
+
+    private final GridLayoutManager mLayoutManager;
+
+    /**
+     * 替换前的SpanSizeLookup
+     */
+    final GridLayoutManager.SpanSizeLookup original;
+
+    VastSpanSizeLookup(VastAdapter<?> adapter, GridLayoutManager layoutManager,
+                       GridLayoutManager.SpanSizeLookup original) {
+        this.mAdapter = adapter;
+        this.mLayoutManager = layoutManager;
+        //重复attach时不再嵌套包装
+        this.original = original instanceof VastSpanSizeLookup ? ((VastSpanSizeLookup) original).original : original;
+        setSpanIndexCacheEnabled(true);
+        setSpanGroupIndexCacheEnabled(true);
+    }
+
+    @Override
+    public int getSpanSize(int position) {
+        return mAdapter.getSpanSize(position, mLayoutManager.getSpanCount(), original);
+    }
+
+    /**
+     * 清空span下标与分组下标缓存
+     */
+    void invalidateCache() {
+        invalidateSpanIndexCache();
+        invalidateSpanGroupIndexCache();
+    }
+}
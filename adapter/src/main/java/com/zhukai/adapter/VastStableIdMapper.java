@@ -0,0 +1,43 @@
+package com.zhukai.adapter;
+
+import androidx.collection.LongSparseArray;
+
+/**
+ * 拼接适配器的itemId映射
+ * <p>
+ * 各适配器的itemId只在自身范围内唯一，Header/Footer与空缺view的保留id在每个适配器中都相同;
+ * 每个适配器持有各自的{@link Scope}，将原itemId映射为由共享计数器分配的全局itemId，拼接后的itemId不会重复.
+ *
+ * @author zhukai
+ */
+final class VastStableIdMapper {
+
+    /**
+     * 下一个分配的全局itemId
+     */
+    private long mNextId;
+
+    /**
+     * 为一个适配器创建独立的映射
+     */
+    Scope createScope() {
+        return new Scope();
+    }
+
+    /**
+     * 单个适配器的映射，原itemId第一次出现时分配全局itemId，之后保持不变
+     */
+    final class Scope {
+
+        private final LongSparseArray<Long> mGlobalIds = new LongSparseArray<>();
+
+        long toGlobalId(long localId) {
+            Long globalId = mGlobalIds.get(localId);
+            if (null == globalId) {
+                globalId = mNextId++;
+                mGlobalIds.put(localId, globalId);
+            }
+            return globalId;
+        }
+    }
+}
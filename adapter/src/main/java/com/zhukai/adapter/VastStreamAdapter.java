@@ -0,0 +1,219 @@
+package com.zhukai.adapter;
+
+import android.view.Choreographer;
+import android.view.View;
+
+import androidx.annotation.LayoutRes;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 流式追加适配器
+ * <p>
+ * 适用于日志、聊天等高频追加的列表：任意线程通过{@link #push(Object)}提交的数据先进入无锁队列，
+ * 主线程每帧取出一次追加到定长环形列表，超出容量时淘汰最早的条目;每帧最多通知一次区间移除与一次区间插入.
+ * 最后一条数据可见时(处于最新位置)追加后自动滚动到最新位置，用户滚动离开后保持当前可见条目不动.
+ *
+ * @author zhukai
+ */
+public abstract class VastStreamAdapter<D> extends VastAdapter<D> implements Choreographer.FrameCallback {
+
+    /**
+     * 保存数据的环形列表
+     */
+    private final VastRingBuffer<D> mBuffer;
+
+    /**
+     * 待追加的数据
+     */
+    private final ConcurrentLinkedQueue<D> mPending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 是否已安排下一帧追加
+     */
+    private final AtomicBoolean mScheduled = new AtomicBoolean();
+
+    /**
+     * 后台线程提交时，切换到主线程后再注册帧回调
+     */
+    private final Runnable mScheduleTask = new Runnable() {
+        @Override
+        public void run() {
+            Choreographer.getInstance().postFrameCallback(VastStreamAdapter.this);
+        }
+    };
+
+    private RecyclerView mRecyclerView;
+
+    /**
+     * 处于最新位置时是否自动滚动
+     */
+    private boolean mFollowLiveEdge = true;
+
+    /**
+     * @param maxSize 最多保留的数据量
+     */
+    public VastStreamAdapter(int maxSize, @LayoutRes int... layoutIds) {
+        this(new VastRingBuffer<D>(maxSize), layoutIds);
+    }
+
+    private VastStreamAdapter(VastRingBuffer<D> buffer, int... layoutIds) {
+        super(buffer, layoutIds);
+        this.mBuffer = buffer;
+    }
+
+    /**
+     * 追加数据，可在任意线程调用
+     */
+    public void push(D item) {
+        mPending.offer(item);
+        scheduleDrain();
+    }
+
+    /**
+     * 追加多条数据，可在任意线程调用
+     */
+    public void pushAll(Collection<? extends D> items) {
+        mPending.addAll(items);
+        scheduleDrain();
+    }
+
+    /**
+     * 最多保留的数据量
+     */
+    public int getMaxSize() {
+        return mBuffer.capacity();
+    }
+
+    /**
+     * 设置处于最新位置时追加后是否自动滚动到最新位置，默认开启
+     */
+    public void setFollowLiveEdge(boolean followLiveEdge) {
+        this.mFollowLiveEdge = followLiveEdge;
+    }
+
+    /**
+     * 最后一条数据是否可见
+     */
+    @MainThread
+    public boolean isAtLiveEdge() {
+        if (null == mRecyclerView || null == mRecyclerView.getLayoutManager()) {
+            return true;
+        }
+        int dataCount = getDataCount();
+        if (dataCount == 0) {
+            return true;
+        }
+        int last = toHostPosition(getHeaderCount() + dataCount - 1);
+        RecyclerView.LayoutManager lm = mRecyclerView.getLayoutManager();
+        for (int i = 0, count = lm.getChildCount(); i < count; i++) {
+            View child = lm.getChildAt(i);
+            if (null != child && lm.getPosition(child) >= last) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 滚动到最新位置
+     */
+    @MainThread
+    public void scrollToLiveEdge() {
+        int dataCount = getDataCount();
+        if (null != mRecyclerView && dataCount > 0) {
+            mRecyclerView.scrollToPosition(toHostPosition(getHeaderCount() + dataCount - 1));
+        }
+    }
+
+    /**
+     * 清空已显示与待追加的数据
+     */
+    @MainThread
+    public void clear() {
+        mPending.clear();
+        int count = mBuffer.size();
+        mBuffer.clear();
+        notifyDataItemRangeRemoved(0, count);
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        drain();
+    }
+
+    @Override
+    public void onAttachedToRecyclerView(@NonNull RecyclerView recyclerView) {
+        super.onAttachedToRecyclerView(recyclerView);
+        mRecyclerView = recyclerView;
+    }
+
+    @Override
+    public void onDetachedFromRecyclerView(@NonNull RecyclerView recyclerView) {
+        mRecyclerView = null;
+        super.onDetachedFromRecyclerView(recyclerView);
+    }
+
+    /**
+     * 流式模式下数据只能通过{@link #push(Object)}追加
+     */
+    @Override
+    public void submitList(List<D> newList) {
+        throw new UnsupportedOperationException("VastStreamAdapter only accepts data through push");
+    }
+
+    @Override
+    void checkDataMutable() {
+        throw new UnsupportedOperationException("VastStreamAdapter only accepts data through push");
+    }
+
+    private void scheduleDrain() {
+        if (mScheduled.compareAndSet(false, true)) {
+            if (VastExecutors.isMainThread()) {
+                Choreographer.getInstance().postFrameCallback(this);
+            } else {
+                VastExecutors.postMain(mScheduleTask);
+            }
+        }
+    }
+
+    /**
+     * 取出本帧之前提交的全部数据，合并为一次移除与一次插入通知
+     */
+    private void drain() {
+        //先复位，追加期间新提交的数据会安排到下一帧
+        mScheduled.set(false);
+        //在修改数据之前按当前布局判断是否处于最新位置
+        boolean follow = mFollowLiveEdge && !mPending.isEmpty() && isAtLiveEdge();
+        int oldSize = mBuffer.size();
+        int appended = 0;
+        int evicted = 0;
+        D item;
+        while (null != (item = mPending.poll())) {
+            if (mBuffer.append(item)) {
+                evicted++;
+            }
+            appended++;
+        }
+        if (appended == 0) {
+            return;
+        }
+
+        //淘汰的条目可能包含本帧追加又被挤出的数据，只有原有条目需要通知移除
+        int removed = Math.min(evicted, oldSize);
+        int inserted = Math.min(appended, mBuffer.capacity());
+        if (removed > 0) {
+            notifyDataItemRangeRemoved(0, removed);
+        }
+        notifyDataItemRangeInserted(oldSize - removed, inserted);
+        if (follow) {
+            scrollToLiveEdge();
+        }
+    }
+}
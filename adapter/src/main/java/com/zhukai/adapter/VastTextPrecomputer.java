@@ -0,0 +1,226 @@
+package com.zhukai.adapter;
+
+import android.util.LruCache;
+import android.widget.TextView;
+
+import androidx.annotation.IdRes;
+import androidx.annotation.MainThread;
+import androidx.core.text.PrecomputedTextCompat;
+import androidx.core.widget.TextViewCompat;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * 文本异步预计算
+ * <p>
+ * 在后台线程以目标TextView的文本度量参数预先计算文本布局，结果按条目key与view_id缓存，绑定时直接设置避免在主线程测量文本;
+ * 同一条目中的多个TextView各自缓存，互不覆盖;
+ * 由{@link VastHolder#setPrecomputedText(int, Object, CharSequence)}使用，Holder重新绑定或被回收后不再设置过期的结果.
+ *
+ * @author zhukai
+ */
+public final class VastTextPrecomputer {
+
+    /**
+     * 默认缓存的条目数量
+     */
+    private static final int CACHE_SIZE_DEFAULT = 500;
+
+    private static volatile VastTextPrecomputer sInstance;
+
+    /**
+     * 以条目key与view_id缓存的预计算结果
+     */
+    private final LruCache<CacheKey, PrecomputedTextCompat> mCache;
+
+    /**
+     * 计算线程，为空时使用共用后台线程池
+     */
+    private Executor mExecutor;
+
+    /**
+     * @param maxCacheSize 最多缓存的文本数量，同一条目的每个TextView各占一个
+     */
+    public VastTextPrecomputer(int maxCacheSize) {
+        mCache = new LruCache<>(maxCacheSize);
+    }
+
+    /**
+     * 获取默认实例
+     */
+    public static VastTextPrecomputer getInstance() {
+        if (null == sInstance) {
+            synchronized (VastTextPrecomputer.class) {
+                if (null == sInstance) {
+                    sInstance = new VastTextPrecomputer(CACHE_SIZE_DEFAULT);
+                }
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 替换默认实例，用于自定义缓存容量
+     */
+    public static void setInstance(VastTextPrecomputer precomputer) {
+        sInstance = precomputer;
+    }
+
+    /**
+     * 设置计算线程，默认使用共用后台线程池
+     */
+    public void setExecutor(Executor executor) {
+        this.mExecutor = executor;
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void clearCache() {
+        mCache.evictAll();
+    }
+
+    /**
+     * 移除指定条目中所有TextView的缓存，条目文本变化时调用
+     */
+    public void invalidate(Object key) {
+        for (Map.Entry<CacheKey, PrecomputedTextCompat> entry : mCache.snapshot().entrySet()) {
+            if (entry.getKey().key.equals(key)) {
+                mCache.remove(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * 移除指定条目中一个TextView的缓存
+     */
+    public void invalidate(Object key, @IdRes int viewId) {
+        mCache.remove(new CacheKey(key, viewId));
+    }
+
+    /**
+     * 设置预计算文本，命中缓存且度量参数一致时直接设置，否则清空文本并在计算完成后设置
+     *
+     * @param holder 所在Holder，用于判断是否已重新绑定
+     * @param key    条目key与view_id
+     * @return 进行中的请求，命中缓存时返回null
+     */
+    @MainThread
+    Request load(VastHolder holder, TextView view, final CacheKey key, final CharSequence text) {
+        final PrecomputedTextCompat.Params params = TextViewCompat.getTextMetricsParams(view);
+        PrecomputedTextCompat cached = mCache.get(key);
+        if (null != cached && cached.getParams().equals(params) && contentEquals(cached, text)) {
+            TextViewCompat.setPrecomputedText(view, cached);
+            return null;
+        }
+        view.setText(null);
+
+        final Request request = new Request(holder, view, holder.bindGeneration);
+        Executor executor = null != mExecutor ? mExecutor : VastExecutors.background();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (request.isStale()) {
+                    return;
+                }
+                final PrecomputedTextCompat result = PrecomputedTextCompat.create(text, params);
+                mCache.put(key, result);
+                VastExecutors.postMain(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (request.isStale()) {
+                            return;
+                        }
+                        //等待期间TextView的字体等参数发生变化时退回普通设置
+                        if (result.getParams().equals(TextViewCompat.getTextMetricsParams(request.view))) {
+                            TextViewCompat.setPrecomputedText(request.view, result);
+                        } else {
+                            request.view.setText(text);
+                        }
+                    }
+                });
+            }
+        });
+        return request;
+    }
+
+    private static boolean contentEquals(CharSequence a, CharSequence b) {
+        int length = a.length();
+        if (null == b || length != b.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (a.charAt(i) != b.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 缓存key，由条目key与view_id组成
+     */
+    static final class CacheKey {
+
+        final Object key;
+
+        final int viewId;
+
+        CacheKey(Object key, int viewId) {
+            if (null == key) {
+                throw new NullPointerException("key must not be null");
+            }
+            this.key = key;
+            this.viewId = viewId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return viewId == other.viewId && key.equals(other.key);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * key.hashCode() + viewId;
+        }
+    }
+
+    /**
+     * 进行中的预计算请求
+     */
+    static final class Request {
+
+        final VastHolder holder;
+
+        final TextView view;
+
+        /**
+         * 发起请求时Holder的绑定序号
+         */
+        final int bindGeneration;
+
+        volatile boolean cancelled;
+
+        Request(VastHolder holder, TextView view, int bindGeneration) {
+            this.holder = holder;
+            this.view = view;
+            this.bindGeneration = bindGeneration;
+        }
+
+        void cancel() {
+            cancelled = true;
+        }
+
+        boolean isStale() {
+            return cancelled || holder.bindGeneration != bindGeneration;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.zhukai.adapter;
+
+import java.util.Arrays;
+
+/**
+ * 耗时直方图
+ * <p>
+ * 以对数分桶记录纳秒耗时，小于{@link #SUB_BUCKETS}的耗时逐一分桶，其余每个2的幂区间再均分为{@link #SUB_BUCKETS}个子桶，
+ * 百分位返回所在桶的上界，相对误差小于1/{@link #SUB_BUCKETS};
+ * 桶数组在构造时一次性分配，记录与查询均不产生对象分配.
+ *
+ * @author zhukai
+ */
+public final class VastTimingHistogram {
+
+    /**
+     * 每个2的幂区间的子桶数量
+     */
+    private static final int SUB_BUCKETS = 8;
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /**
+     * 最大记录至2^35纳秒(约34秒)，更大的耗时计入最后一个桶
+     */
+    private static final int MAX_EXPONENT = 34;
+
+    /**
+     * 前{@link #SUB_BUCKETS}个桶逐一对应0~7纳秒，之后每个2的幂区间占{@link #SUB_BUCKETS}个桶
+     */
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final long[] mBuckets = new long[BUCKET_COUNT];
+
+    private long mCount;
+
+    private long mTotal;
+
+    private long mMax;
+
+    /**
+     * 记录一次耗时
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        mBuckets[bucketOf(nanos)]++;
+        mCount++;
+        mTotal += nanos;
+        if (nanos > mMax) {
+            mMax = nanos;
+        }
+    }
+
+    /**
+     * 记录次数
+     */
+    public long getCount() {
+        return mCount;
+    }
+
+    /**
+     * 最大耗时，单位纳秒
+     */
+    public long getMax() {
+        return mMax;
+    }
+
+    /**
+     * 平均耗时，单位纳秒
+     */
+    public long getMean() {
+        return mCount == 0 ? 0 : mTotal / mCount;
+    }
+
+    /**
+     * 获取百分位耗时，返回所在桶的上界且不超过最大耗时，单位纳秒
+     *
+     * @param percentile 百分位，取值0~100
+     */
+    public long getPercentile(double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(mCount * Math.min(Math.max(percentile, 0), 100) / 100);
+        rank = Math.max(rank, 1);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += mBuckets[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), mMax);
+            }
+        }
+        return mMax;
+    }
+
+    /**
+     * 清空记录
+     */
+    public void reset() {
+        Arrays.fill(mBuckets, 0);
+        mCount = 0;
+        mTotal = 0;
+        mMax = 0;
+    }
+
+    private static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        //区间[2^exponent, 2^(exponent+1))均分为SUB_BUCKETS个宽度为2^(exponent-3)的子桶
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * 桶内的最大耗时，最后一个桶同时容纳超出上限的耗时，没有上界
+     */
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        if (bucket == BUCKET_COUNT - 1) {
+            return Long.MAX_VALUE;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = bucket % SUB_BUCKETS;
+        return (1L << exponent) + ((long) (subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
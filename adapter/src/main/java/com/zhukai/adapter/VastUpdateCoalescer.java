@@ -0,0 +1,124 @@
+package com.zhukai.adapter;
+
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+/**
+ * 变化通知合并
+ * <p>
+ * 按应用顺序接收插入、移除、变化与移动，相邻或重叠的同类变化合并为一次区间通知，无法合并时先分发之前的通知;
+ * 分发顺序与应用顺序一致，RecyclerView据此推算的条目位置与列表始终相符.
+ * 只在主线程使用.
+ *
+ * @author zhukai
+ */
+final class VastUpdateCoalescer {
+
+    private static final int OP_NONE = 0;
+
+    private static final int OP_INSERT = 1;
+
+    private static final int OP_REMOVE = 2;
+
+    private static final int OP_CHANGE = 3;
+
+    private final ListUpdateCallback mCallback;
+
+    /**
+     * 待分发的合并通知
+     */
+    private int mOp = OP_NONE;
+
+    private int mStart;
+
+    private int mCount;
+
+    private Object mPayload;
+
+    VastUpdateCoalescer(ListUpdateCallback callback) {
+        this.mCallback = callback;
+    }
+
+    /**
+     * 插入在已插入区间内部或两端时合并
+     */
+    void insert(int start, int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (mOp == OP_INSERT && start >= mStart && start <= mStart + mCount) {
+            mCount += count;
+            return;
+        }
+        dispatchAndSet(OP_INSERT, start, count, null);
+    }
+
+    /**
+     * 移除的区间包含或紧邻之前已移除的位置时合并
+     */
+    void remove(int start, int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (mOp == OP_REMOVE && mStart >= start && mStart <= start + count) {
+            mStart = start;
+            mCount += count;
+            return;
+        }
+        dispatchAndSet(OP_REMOVE, start, count, null);
+    }
+
+    /**
+     * 相同payload的重叠或相邻区间合并
+     */
+    void change(int start, int count, Object payload) {
+        if (count <= 0) {
+            return;
+        }
+        int end = mStart + mCount;
+        if (mOp == OP_CHANGE && payload == mPayload && start <= end && start + count >= mStart) {
+            mStart = Math.min(start, mStart);
+            mCount = Math.max(start + count, end) - mStart;
+            return;
+        }
+        dispatchAndSet(OP_CHANGE, start, count, payload);
+    }
+
+    /**
+     * 移动不参与合并，先分发之前的通知
+     */
+    void move(int fromPosition, int toPosition) {
+        dispatch();
+        mCallback.onMoved(fromPosition, toPosition);
+    }
+
+    /**
+     * 分发待分发的通知
+     */
+    void dispatch() {
+        int op = mOp;
+        Object payload = mPayload;
+        mOp = OP_NONE;
+        mPayload = null;
+        switch (op) {
+            case OP_INSERT:
+                mCallback.onInserted(mStart, mCount);
+                break;
+            case OP_REMOVE:
+                mCallback.onRemoved(mStart, mCount);
+                break;
+            case OP_CHANGE:
+                mCallback.onChanged(mStart, mCount, payload);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void dispatchAndSet(int op, int start, int count, Object payload) {
+        dispatch();
+        mOp = op;
+        mStart = start;
+        mCount = count;
+        mPayload = payload;
+    }
+}
@@ -0,0 +1,284 @@
+package com.zhukai.adapter;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.util.LongSparseArray;
+import android.util.SparseArray;
+
+import java.util.Arrays;
+
+/**
+ * 条目View状态存储
+ * <p>
+ * 以数据key保存Holder回收时的View状态(展开状态、内部滚动位置等)，再次绑定同一条数据时恢复;
+ * 超出容量时淘汰最早保存的状态.由{@link VastAdapter#setViewStateCapacity(int)}开启，
+ * 通过{@link VastAdapter#saveViewState()}转为{@link SavedState}在配置变化后恢复.
+ * 状态以long为key保存，保存顺序记录在环形数组中，保存、取出与淘汰都不装箱.
+ *
+ * @author zhukai
+ */
+public final class VastViewStateStore {
+
+    private final LongSparseArray<Entry> mEntries = new LongSparseArray<>();
+
+    private int mCapacity;
+
+    /**
+     * 保存序号，用于判断保存顺序中的记录是否仍有效
+     */
+    private long mClock;
+
+    /**
+     * 保存顺序，按保存先后记录key与保存序号;重新保存或取出后原记录失效，淘汰时跳过
+     */
+    private long[] mOrderKeys;
+
+    private long[] mOrderStamps;
+
+    /**
+     * 整理顺序记录时使用的备用数组，与mOrderKeys、mOrderStamps交替使用
+     */
+    private long[] mSpareKeys;
+
+    private long[] mSpareStamps;
+
+    /**
+     * 最早记录在数组中的下标
+     */
+    private int mOrderHead;
+
+    private int mOrderSize;
+
+    VastViewStateStore(int capacity) {
+        this.mCapacity = capacity;
+        int length = orderCapacityFor(capacity);
+        mOrderKeys = new long[length];
+        mOrderStamps = new long[length];
+        mSpareKeys = new long[length];
+        mSpareStamps = new long[length];
+    }
+
+    void setCapacity(int capacity) {
+        this.mCapacity = capacity;
+        while (mEntries.size() > mCapacity) {
+            evictOldest();
+        }
+    }
+
+    int size() {
+        return mEntries.size();
+    }
+
+    void put(long key, SparseArray<Parcelable> state) {
+        putLast(key, state);
+        while (mEntries.size() > mCapacity) {
+            evictOldest();
+        }
+    }
+
+    /**
+     * 取出并移除状态，恢复后由View自身持有，回收时重新保存
+     */
+    SparseArray<Parcelable> remove(long key) {
+        int index = mEntries.indexOfKey(key);
+        if (index < 0) {
+            return null;
+        }
+        Entry entry = mEntries.valueAt(index);
+        mEntries.removeAt(index);
+        return entry.state;
+    }
+
+    void clear() {
+        mEntries.clear();
+        mOrderHead = 0;
+        mOrderSize = 0;
+    }
+
+    SavedState toSavedState() {
+        return new SavedState(this);
+    }
+
+    /**
+     * 合并已保存的状态，保留原有的保存顺序
+     */
+    void restore(SavedState savedState) {
+        for (int i = 0, size = savedState.keys.length; i < size; i++) {
+            putLast(savedState.keys[i], savedState.states[i]);
+        }
+        setCapacity(mCapacity);
+    }
+
+    /**
+     * 保存到保存顺序的末尾，已存在的key沿用原Entry，原顺序记录随之失效
+     */
+    private void putLast(long key, SparseArray<Parcelable> state) {
+        long stamp = ++mClock;
+        Entry entry = mEntries.get(key);
+        if (null == entry) {
+            mEntries.put(key, new Entry(state, stamp));
+        } else {
+            entry.state = state;
+            entry.stamp = stamp;
+        }
+        if (mOrderSize == mOrderKeys.length) {
+            compactOrder();
+        }
+        int tail = (mOrderHead + mOrderSize) % mOrderKeys.length;
+        mOrderKeys[tail] = key;
+        mOrderStamps[tail] = stamp;
+        mOrderSize++;
+    }
+
+    /**
+     * 淘汰最早保存的状态，只在超出容量时执行，跳过已失效的顺序记录
+     */
+    private void evictOldest() {
+        while (mOrderSize > 0) {
+            long key = mOrderKeys[mOrderHead];
+            long stamp = mOrderStamps[mOrderHead];
+            mOrderHead = (mOrderHead + 1) % mOrderKeys.length;
+            mOrderSize--;
+            if (isLive(key, stamp)) {
+                mEntries.remove(key);
+                return;
+            }
+        }
+    }
+
+    private boolean isLive(long key, long stamp) {
+        Entry entry = mEntries.get(key);
+        return null != entry && entry.stamp == stamp;
+    }
+
+    /**
+     * 顺序记录已满时移除失效记录，有效记录不超过容量，数组至少为容量的两倍，均摊为O(1);
+     * 容量调大后有效记录仍较多时扩容
+     */
+    private void compactOrder() {
+        int length = mOrderKeys.length;
+        int required = orderCapacityFor(Math.max(mCapacity, mEntries.size()));
+        if (required > length) {
+            mSpareKeys = new long[required];
+            mSpareStamps = new long[required];
+        }
+        int live = 0;
+        for (int i = 0; i < mOrderSize; i++) {
+            int index = (mOrderHead + i) % length;
+            if (isLive(mOrderKeys[index], mOrderStamps[index])) {
+                mSpareKeys[live] = mOrderKeys[index];
+                mSpareStamps[live] = mOrderStamps[index];
+                live++;
+            }
+        }
+        long[] keys = mOrderKeys;
+        long[] stamps = mOrderStamps;
+        mOrderKeys = mSpareKeys;
+        mOrderStamps = mSpareStamps;
+        if (required > length) {
+            keys = new long[required];
+            stamps = new long[required];
+        }
+        mSpareKeys = keys;
+        mSpareStamps = stamps;
+        mOrderHead = 0;
+        mOrderSize = live;
+    }
+
+    private static int orderCapacityFor(int capacity) {
+        return Math.max(capacity, 4) * 2;
+    }
+
+    private static final class Entry {
+
+        SparseArray<Parcelable> state;
+
+        long stamp;
+
+        Entry(SparseArray<Parcelable> state, long stamp) {
+            this.state = state;
+            this.stamp = stamp;
+        }
+    }
+
+    /**
+     * 可序列化的状态，按保存顺序排列
+     */
+    public static final class SavedState implements Parcelable {
+
+        final long[] keys;
+
+        final SparseArray<Parcelable>[] states;
+
+        @SuppressWarnings("unchecked")
+        SavedState(VastViewStateStore store) {
+            int size = store.mEntries.size();
+            keys = new long[size];
+            states = new SparseArray[size];
+            //按保存顺序取出仍有效的记录
+            int count = 0;
+            for (int i = 0, length = store.mOrderKeys.length; i < store.mOrderSize; i++) {
+                int index = (store.mOrderHead + i) % length;
+                long key = store.mOrderKeys[index];
+                if (store.isLive(key, store.mOrderStamps[index])) {
+                    keys[count] = key;
+                    states[count] = store.mEntries.get(key).state;
+                    count++;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        SavedState(Parcel source, ClassLoader loader) {
+            int size = source.readInt();
+            keys = new long[size];
+            states = new SparseArray[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = source.readLong();
+                int count = source.readInt();
+                SparseArray<Parcelable> state = new SparseArray<>(count);
+                for (int j = 0; j < count; j++) {
+                    int viewId = source.readInt();
+                    state.put(viewId, source.readParcelable(loader));
+                }
+                states[i] = state;
+            }
+        }
+
+        @Override
+        public int describeContents() {
+            return 0;
+        }
+
+        @Override
+        public void writeToParcel(Parcel dest, int flags) {
+            dest.writeInt(keys.length);
+            for (int i = 0; i < keys.length; i++) {
+                dest.writeLong(keys[i]);
+                SparseArray<Parcelable> state = states[i];
+                dest.writeInt(state.size());
+                for (int j = 0, count = state.size(); j < count; j++) {
+                    dest.writeInt(state.keyAt(j));
+                    dest.writeParcelable(state.valueAt(j), flags);
+                }
+            }
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.ClassLoaderCreator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel source, ClassLoader loader) {
+                return new SavedState(source, null != loader ? loader : SavedState.class.getClassLoader());
+            }
+
+            @Override
+            public SavedState createFromParcel(Parcel source) {
+                return new SavedState(source, SavedState.class.getClassLoader());
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+}
@@ -0,0 +1,124 @@
+package com.zhukai.adapter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * VastFenwickTree测试
+ * <p>
+ * 以朴素累加的结果校验前缀和与反查下标，序列中包含数量为0的元素.
+ *
+ * @author zhukai
+ */
+public class VastFenwickTreeTest {
+
+    private VastFenwickTree mTree;
+
+    @Before
+    public void setUp() {
+        mTree = new VastFenwickTree();
+    }
+
+    @Test
+    public void prefix() {
+        int[] values = {3, 0, 5, 1, 0, 0, 2, 4};
+        mTree.build(values, values.length);
+        assertEquals(values.length, mTree.size());
+        int sum = 0;
+        for (int count = 0; count <= values.length; count++) {
+            assertEquals("count " + count, sum, mTree.prefix(count));
+            if (count < values.length) {
+                sum += values[count];
+            }
+        }
+        //超出元素数量时返回总和
+        assertEquals(sum, mTree.prefix(values.length + 5));
+    }
+
+    @Test
+    public void find() {
+        int[] values = {3, 0, 5, 1, 0, 0, 2, 4};
+        mTree.build(values, values.length);
+        int[] expected = {0, 0, 0, 2, 2, 2, 2, 2, 3, 6, 6, 7, 7, 7, 7};
+        for (int value = 0; value < expected.length; value++) {
+            assertEquals("value " + value, expected[value], mTree.find(value));
+        }
+        //不小于总和时返回size
+        assertEquals(values.length, mTree.find(15));
+        assertEquals(values.length, mTree.find(100));
+    }
+
+    @Test
+    public void addUpdatesPrefixAndFind() {
+        int[] values = {2, 2, 2};
+        mTree.build(values, values.length);
+        mTree.add(1, -2);
+        assertEquals(2, mTree.prefix(2));
+        assertEquals(2, mTree.find(2));
+        mTree.add(0, 3);
+        assertEquals(5, mTree.prefix(1));
+        assertEquals(0, mTree.find(4));
+        assertEquals(2, mTree.find(5));
+    }
+
+    @Test
+    public void emptyAndRebuild() {
+        mTree.build(new int[0], 0);
+        assertEquals(0, mTree.prefix(3));
+        assertEquals(0, mTree.find(0));
+
+        mTree.build(new int[]{1, 1, 1, 1, 1, 1, 1, 1, 1}, 9);
+        //缩小后重建，不受之前数据影响
+        mTree.build(new int[]{4, 4, 9, 9}, 2);
+        assertEquals(2, mTree.size());
+        assertEquals(8, mTree.prefix(4));
+        assertEquals(1, mTree.find(4));
+        assertEquals(2, mTree.find(8));
+    }
+
+    @Test
+    public void matchesNaiveSums() {
+        Random random = new Random(7);
+        int size = 100;
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(4);
+        }
+        mTree.build(values, size);
+        for (int round = 0; round < 200; round++) {
+            int index = random.nextInt(size);
+            int delta = random.nextInt(4) - values[index];
+            values[index] += delta;
+            mTree.add(index, delta);
+
+            int count = random.nextInt(size + 1);
+            assertEquals(naivePrefix(values, count), mTree.prefix(count));
+
+            int value = random.nextInt(naivePrefix(values, size) + 1);
+            assertEquals(naiveFind(values, value), mTree.find(value));
+        }
+    }
+
+    private static int naivePrefix(int[] values, int count) {
+        int sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    private static int naiveFind(int[] values, int value) {
+        int sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            sum += values[i];
+            if (sum > value) {
+                return i;
+            }
+        }
+        return values.length;
+    }
+}
@@ -0,0 +1,91 @@
+package com.zhukai.adapter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * VastRingBuffer测试
+ * <p>
+ * 检查追加、满容量后的淘汰顺序及按下标读写.
+ *
+ * @author zhukai
+ */
+public class VastRingBufferTest {
+
+    private VastRingBuffer<Integer> mBuffer;
+
+    @Before
+    public void setUp() {
+        mBuffer = new VastRingBuffer<>(3);
+    }
+
+    @Test
+    public void appendUntilFull() {
+        assertTrue(mBuffer.isEmpty());
+        assertFalse(mBuffer.append(1));
+        assertFalse(mBuffer.append(2));
+        assertFalse(mBuffer.append(3));
+        assertEquals(3, mBuffer.size());
+        assertEquals(3, mBuffer.capacity());
+        assertEquals(Arrays.asList(1, 2, 3), mBuffer);
+    }
+
+    @Test
+    public void evictsOldestWhenFull() {
+        for (int i = 1; i <= 3; i++) {
+            mBuffer.append(i);
+        }
+        assertTrue(mBuffer.append(4));
+        assertEquals(Arrays.asList(2, 3, 4), mBuffer);
+        assertTrue(mBuffer.append(5));
+        assertTrue(mBuffer.append(6));
+        assertTrue(mBuffer.append(7));
+        //绕过数组末尾后顺序不变
+        assertEquals(3, mBuffer.size());
+        assertEquals(Arrays.asList(5, 6, 7), mBuffer);
+    }
+
+    @Test
+    public void getAndSetFollowLogicalOrder() {
+        for (int i = 1; i <= 5; i++) {
+            mBuffer.append(i);
+        }
+        assertEquals(Integer.valueOf(3), mBuffer.get(0));
+        assertEquals(Integer.valueOf(5), mBuffer.get(2));
+        assertEquals(Integer.valueOf(4), mBuffer.set(1, 40));
+        assertEquals(Arrays.asList(3, 40, 5), mBuffer);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getBeyondSizeThrows() {
+        mBuffer.append(1);
+        mBuffer.get(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void getNegativeThrows() {
+        mBuffer.get(-1);
+    }
+
+    @Test
+    public void clearStartsOver() {
+        for (int i = 1; i <= 4; i++) {
+            mBuffer.append(i);
+        }
+        mBuffer.clear();
+        assertTrue(mBuffer.isEmpty());
+        assertFalse(mBuffer.append(9));
+        assertEquals(Arrays.asList(9), mBuffer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNonPositiveCapacity() {
+        new VastRingBuffer<Integer>(0);
+    }
+}
@@ -0,0 +1,142 @@
+package com.zhukai.adapter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * VastSegmentTable测试
+ * <p>
+ * 以全局头尾加两个分组的结构检查adapter下标与数据下标之间的转换.
+ *
+ * @author zhukai
+ */
+public class VastSegmentTableTest {
+
+    private VastSegmentTable mTable;
+
+    /**
+     * 0:Header 1:分组0头部 2-4:数据0-2 5:分组0尾部 6:分组1头部 7-8:数据3-4 9:剩余数据5 10:Footer
+     */
+    @Before
+    public void setUp() {
+        mTable = new VastSegmentTable();
+        mTable.clear();
+        mTable.appendFixed(100);
+        mTable.appendFixed(101);
+        mTable.appendData(3);
+        mTable.appendFixed(102);
+        mTable.appendFixed(103);
+        mTable.appendData(2);
+        mTable.appendData(1);
+        mTable.appendFixed(104);
+    }
+
+    @Test
+    public void kindAt() {
+        assertEquals(11, mTable.getItemCount());
+        assertFalse(mTable.isVacancy());
+        assertEquals(VastSegmentTable.KIND_FIXED, mTable.kindAt(0));
+        assertEquals(VastSegmentTable.KIND_FIXED, mTable.kindAt(1));
+        assertEquals(VastSegmentTable.KIND_DATA, mTable.kindAt(2));
+        assertEquals(VastSegmentTable.KIND_DATA, mTable.kindAt(4));
+        assertEquals(VastSegmentTable.KIND_FIXED, mTable.kindAt(5));
+        assertEquals(VastSegmentTable.KIND_FIXED, mTable.kindAt(6));
+        assertEquals(VastSegmentTable.KIND_DATA, mTable.kindAt(7));
+        assertEquals(VastSegmentTable.KIND_DATA, mTable.kindAt(9));
+        assertEquals(VastSegmentTable.KIND_FIXED, mTable.kindAt(10));
+        assertEquals(VastSegmentTable.KIND_NONE, mTable.kindAt(11));
+        assertEquals(VastSegmentTable.KIND_NONE, mTable.kindAt(-1));
+    }
+
+    @Test
+    public void fixedViewTypeAt() {
+        assertEquals(100, mTable.fixedViewTypeAt(0));
+        assertEquals(101, mTable.fixedViewTypeAt(1));
+        assertEquals(102, mTable.fixedViewTypeAt(5));
+        assertEquals(103, mTable.fixedViewTypeAt(6));
+        assertEquals(104, mTable.fixedViewTypeAt(10));
+    }
+
+    @Test
+    public void dataPositionAt() {
+        int[] expected = {-1, -1, 0, 1, 2, -1, -1, 3, 4, 5, -1, -1};
+        //顺序与倒序访问分别覆盖命中上一段与二分查找
+        for (int position = 0; position < expected.length; position++) {
+            assertEquals("position " + position, expected[position], mTable.dataPositionAt(position));
+        }
+        for (int position = expected.length - 1; position >= 0; position--) {
+            assertEquals("position " + position, expected[position], mTable.dataPositionAt(position));
+        }
+    }
+
+    @Test
+    public void adapterPositionOf() {
+        int[] expected = {2, 3, 4, 7, 8, 9};
+        for (int dataPosition = 0; dataPosition < expected.length; dataPosition++) {
+            assertEquals(expected[dataPosition], mTable.adapterPositionOf(dataPosition));
+            assertEquals(dataPosition, mTable.dataPositionAt(expected[dataPosition]));
+        }
+        //追加位置在剩余数据之后、Footer之前
+        assertEquals(10, mTable.adapterPositionOf(6));
+    }
+
+    @Test
+    public void dataRunLengthAndCountBefore() {
+        assertEquals(3, mTable.dataRunLength(0));
+        assertEquals(1, mTable.dataRunLength(2));
+        assertEquals(3, mTable.dataRunLength(3));
+        assertEquals(Integer.MAX_VALUE, mTable.dataRunLength(6));
+
+        assertEquals(0, mTable.dataCountBefore(2));
+        assertEquals(3, mTable.dataCountBefore(5));
+        assertEquals(3, mTable.dataCountBefore(6));
+        assertEquals(4, mTable.dataCountBefore(8));
+        assertEquals(6, mTable.dataCountBefore(11));
+    }
+
+    @Test
+    public void emptySections() {
+        mTable.clear();
+        mTable.appendFixed(1);
+        mTable.appendData(0);
+        mTable.appendFixed(2);
+        mTable.appendData(2);
+        mTable.appendFixed(3);
+        mTable.appendData(0);
+        assertEquals(5, mTable.getItemCount());
+        assertEquals(VastSegmentTable.KIND_FIXED, mTable.kindAt(1));
+        assertEquals(2, mTable.adapterPositionOf(0));
+        assertEquals(1, mTable.dataPositionAt(3));
+        assertEquals(-1, mTable.dataPositionAt(4));
+        assertEquals(5, mTable.adapterPositionOf(2));
+    }
+
+    @Test
+    public void vacancy() {
+        mTable.clear();
+        mTable.appendVacancy();
+        assertTrue(mTable.isVacancy());
+        assertEquals(1, mTable.getItemCount());
+        assertEquals(VastSegmentTable.KIND_VACANCY, mTable.kindAt(0));
+        assertEquals(-1, mTable.dataPositionAt(0));
+    }
+
+    @Test
+    public void growsBeyondInitialCapacity() {
+        mTable.clear();
+        for (int i = 0; i < 20; i++) {
+            mTable.appendFixed(i);
+            mTable.appendData(2);
+        }
+        assertEquals(60, mTable.getItemCount());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, mTable.fixedViewTypeAt(i * 3));
+            assertEquals(i * 2 + 1, mTable.dataPositionAt(i * 3 + 2));
+            assertEquals(i * 3 + 1, mTable.adapterPositionOf(i * 2));
+        }
+    }
+}
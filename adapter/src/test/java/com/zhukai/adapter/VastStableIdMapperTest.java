@@ -0,0 +1,63 @@
+package com.zhukai.adapter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * VastStableIdMapper测试
+ * <p>
+ * 模拟两个都带Header的适配器被拼接，检查相同的原itemId映射为不同的全局itemId，且映射保持稳定.
+ *
+ * @author zhukai
+ */
+public class VastStableIdMapperTest {
+
+    /**
+     * 每个适配器第一个Header的itemId
+     */
+    private static final long FIRST_HEADER_ID = Long.MIN_VALUE + 1;
+
+    /**
+     * 空缺view的itemId
+     */
+    private static final long VACANCY_ID = Long.MIN_VALUE;
+
+    private VastStableIdMapper.Scope mFirst;
+
+    private VastStableIdMapper.Scope mSecond;
+
+    @Before
+    public void setUp() {
+        VastStableIdMapper mapper = new VastStableIdMapper();
+        mFirst = mapper.createScope();
+        mSecond = mapper.createScope();
+    }
+
+    @Test
+    public void headersOfTwoAdaptersDoNotCollide() {
+        long firstHeader = mFirst.toGlobalId(FIRST_HEADER_ID);
+        long secondHeader = mSecond.toGlobalId(FIRST_HEADER_ID);
+        assertNotEquals(firstHeader, secondHeader);
+        assertNotEquals(mFirst.toGlobalId(VACANCY_ID), mSecond.toGlobalId(VACANCY_ID));
+    }
+
+    @Test
+    public void dataKeysOfTwoAdaptersDoNotCollide() {
+        for (long key = 0; key < 10; key++) {
+            assertNotEquals(mFirst.toGlobalId(key), mSecond.toGlobalId(key));
+        }
+    }
+
+    @Test
+    public void mappingIsStable() {
+        long header = mFirst.toGlobalId(FIRST_HEADER_ID);
+        long data = mFirst.toGlobalId(42);
+        mSecond.toGlobalId(FIRST_HEADER_ID);
+        mSecond.toGlobalId(42);
+        assertEquals(header, mFirst.toGlobalId(FIRST_HEADER_ID));
+        assertEquals(data, mFirst.toGlobalId(42));
+    }
+}
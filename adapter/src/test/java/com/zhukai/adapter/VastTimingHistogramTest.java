@@ -0,0 +1,94 @@
+package com.zhukai.adapter;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * VastTimingHistogram测试
+ * <p>
+ * 以排序后的原始数据校验百分位，结果不小于真实值且相对误差小于1/8.
+ *
+ * @author zhukai
+ */
+public class VastTimingHistogramTest {
+
+    private VastTimingHistogram mHistogram;
+
+    @Before
+    public void setUp() {
+        mHistogram = new VastTimingHistogram();
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        for (long nanos = 0; nanos < 8; nanos++) {
+            mHistogram.reset();
+            mHistogram.record(nanos);
+            assertEquals(nanos, mHistogram.getPercentile(1));
+            assertEquals(nanos, mHistogram.getPercentile(100));
+        }
+    }
+
+    @Test
+    public void singleValueWithinError() {
+        long[] values = {8, 9, 15, 16, 17, 100, 1000, 2047, 2048, 2049, 123456, 1L << 20, (1L << 34) + 12345};
+        for (long value : values) {
+            mHistogram.reset();
+            mHistogram.record(value);
+            mHistogram.record(1L << 35);
+            assertWithinError(value, mHistogram.getPercentile(50));
+        }
+    }
+
+    @Test
+    public void percentilesWithinError() {
+        Random random = new Random(11);
+        long[] values = new long[5000];
+        for (int i = 0; i < values.length; i++) {
+            //跨越纳秒到秒的多个数量级
+            values[i] = (long) Math.pow(10, random.nextDouble() * 9);
+            mHistogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        double[] percentiles = {0, 1, 10, 25, 50, 75, 90, 99, 99.9, 100};
+        for (double percentile : percentiles) {
+            int rank = Math.max((int) Math.ceil(values.length * percentile / 100), 1);
+            assertWithinError(values[rank - 1], mHistogram.getPercentile(percentile));
+        }
+        assertEquals(values[values.length - 1], mHistogram.getPercentile(100));
+        assertEquals(values.length, mHistogram.getCount());
+    }
+
+    @Test
+    public void overflowCountsAsMax() {
+        long max = 1L << 40;
+        mHistogram.record(5);
+        mHistogram.record(max);
+        assertEquals(max, mHistogram.getMax());
+        assertEquals(max, mHistogram.getPercentile(100));
+        assertEquals(5, mHistogram.getPercentile(50));
+    }
+
+    @Test
+    public void resetClearsRecords() {
+        mHistogram.record(100);
+        mHistogram.record(-3);
+        assertEquals(2, mHistogram.getCount());
+        assertEquals(50, mHistogram.getMean());
+        mHistogram.reset();
+        assertEquals(0, mHistogram.getCount());
+        assertEquals(0, mHistogram.getMax());
+        assertEquals(0, mHistogram.getPercentile(50));
+    }
+
+    private static void assertWithinError(long expected, long actual) {
+        assertTrue("expected " + expected + " but was " + actual,
+                actual >= expected && actual - expected < expected / 8.0 + 1e-9);
+    }
+}
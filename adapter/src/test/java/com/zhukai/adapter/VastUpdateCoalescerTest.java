@@ -0,0 +1,124 @@
+package com.zhukai.adapter;
+
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * VastUpdateCoalescer测试
+ * <p>
+ * 记录分发的通知，检查各类变化的合并条件与分发顺序.
+ *
+ * @author zhukai
+ */
+public class VastUpdateCoalescerTest {
+
+    private final List<String> mEvents = new ArrayList<>();
+
+    private VastUpdateCoalescer mCoalescer;
+
+    @Before
+    public void setUp() {
+        mEvents.clear();
+        mCoalescer = new VastUpdateCoalescer(new ListUpdateCallback() {
+            @Override
+            public void onInserted(int position, int count) {
+                mEvents.add("insert " + position + " " + count);
+            }
+
+            @Override
+            public void onRemoved(int position, int count) {
+                mEvents.add("remove " + position + " " + count);
+            }
+
+            @Override
+            public void onMoved(int fromPosition, int toPosition) {
+                mEvents.add("move " + fromPosition + " " + toPosition);
+            }
+
+            @Override
+            public void onChanged(int position, int count, Object payload) {
+                mEvents.add("change " + position + " " + count + " " + payload);
+            }
+        });
+    }
+
+    @Test
+    public void removeBeforeRemoveMerges() {
+        mCoalescer.remove(5, 1);
+        mCoalescer.remove(4, 1);
+        //移除区间覆盖之前已移除的位置
+        mCoalescer.remove(3, 2);
+        assertTrue(mEvents.isEmpty());
+        mCoalescer.dispatch();
+        assertEvents("remove 3 4");
+    }
+
+    @Test
+    public void removeAtSamePositionMerges() {
+        mCoalescer.remove(2, 1);
+        mCoalescer.remove(2, 3);
+        mCoalescer.remove(7, 1);
+        mCoalescer.dispatch();
+        assertEvents("remove 2 4", "remove 7 1");
+    }
+
+    @Test
+    public void insertInsideInsertRangeMerges() {
+        mCoalescer.insert(2, 3);
+        mCoalescer.insert(3, 1);
+        //紧接已插入区间之后
+        mCoalescer.insert(6, 2);
+        mCoalescer.insert(2, 1);
+        mCoalescer.insert(0, 1);
+        mCoalescer.dispatch();
+        assertEvents("insert 2 7", "insert 0 1");
+    }
+
+    @Test
+    public void changeMergesOverlappingRangesWithSamePayload() {
+        Object payload = "p";
+        mCoalescer.change(3, 1, payload);
+        mCoalescer.change(4, 2, payload);
+        mCoalescer.change(2, 1, payload);
+        mCoalescer.change(3, 1, payload);
+        assertTrue(mEvents.isEmpty());
+        //payload不同或区间不相邻时先分发
+        mCoalescer.change(5, 1, null);
+        mCoalescer.change(9, 1, null);
+        mCoalescer.dispatch();
+        assertEvents("change 2 4 p", "change 5 1 null", "change 9 1 null");
+    }
+
+    @Test
+    public void moveFlushesPendingUpdate() {
+        mCoalescer.insert(0, 2);
+        mCoalescer.move(3, 5);
+        assertEvents("insert 0 2", "move 3 5");
+        mCoalescer.dispatch();
+        assertEquals(2, mEvents.size());
+    }
+
+    @Test
+    public void differentOperationsKeepOrder() {
+        mCoalescer.insert(0, 1);
+        mCoalescer.remove(0, 1);
+        mCoalescer.change(0, 1, null);
+        mCoalescer.insert(0, 0);
+        mCoalescer.dispatch();
+        mCoalescer.dispatch();
+        assertEvents("insert 0 1", "remove 0 1", "change 0 1 null");
+    }
+
+    private void assertEvents(String... expected) {
+        assertEquals(Arrays.asList(expected), mEvents);
+    }
+}